@@ -15,9 +15,25 @@ create table Items (
 create table VersionHistoryDAGs (
     item_id varchar,
     successor_id varchar,
+    vfrom varchar,
+    vto varchar,
     primary key(item_id, successor_id)
 );
 
+create table ItemLeaves (
+    item_id varchar,
+    version_id varchar,
+    primary key(item_id, version_id)
+);
+
+create table GraphLog (
+    bucket bigint,
+    time timeuuid,
+    from_id varchar,
+    to_id varchar,
+    primary key(bucket, time)
+) with default_time_to_live = 604800;
+
 /* MODELS */
 
 create table Structures (
@@ -26,6 +42,11 @@ create table Structures (
     primary key(item_id, name)
 );
 
+create table StructuresByName (
+    name varchar primary key,
+    item_id varchar
+);
+
 create table StructureVersions (
     id varchar primary key,
     structure_id varchar
@@ -59,24 +80,45 @@ create table Tags (
     primary key(richversion_id, key)
 );
 
+create table TagsByKey (
+    key varchar,
+    richversion_id varchar,
+    primary key(key, richversion_id)
+);
+
 create table Edges (
     item_id varchar,
     name varchar,
     primary key(item_id, name)
 );
 
+create table EdgesByName (
+    name varchar primary key,
+    item_id varchar
+);
+
 create table Nodes (
     item_id varchar,
     name varchar,
     primary key(item_id, name)
 );
 
+create table NodesByName (
+    name varchar primary key,
+    item_id varchar
+);
+
 create table Graphs (
     item_id varchar,
     name varchar,
     primary key(item_id, name)
 );
 
+create table GraphsByName (
+    name varchar primary key,
+    item_id varchar
+);
+
 create table NodeVersions (
     id varchar primary key,
     node_id varchar,
@@ -89,6 +131,14 @@ create table EdgeVersions (
     endpoint_two varchar,
 );
 
+create table EdgeVersionsByEndpoint (
+    endpoint_one varchar,
+    id varchar,
+    edge_id varchar,
+    endpoint_two varchar,
+    primary key(endpoint_one, id)
+);
+
 create table GraphVersions (
     id varchar primary key,
     graph_id varchar,
@@ -120,6 +170,11 @@ create table LineageEdges (
     primary key(item_id, name)
 );
 
+create table LineageEdgesByName (
+    name varchar primary key,
+    item_id varchar
+);
+
 create table LineageEdgeVersions (
     id varchar primary key,
     lineageedge_id varchar,
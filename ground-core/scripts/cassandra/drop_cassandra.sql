@@ -1,20 +1,29 @@
 drop table lineageedgeversions;
+drop table lineageedgesbyname;
 drop table lineageedges;
 drop table principals;
 drop table workflows;
 drop table graphversionedges;
 drop table graphversions;
+drop table edgeversionsbyendpoint;
 drop table edgeversions;
 drop table nodeversions;
+drop table graphsbyname;
 drop table graphs;
+drop table nodesbyname;
 drop table nodes;
+drop table edgesbyname;
 drop table edges;
+drop table tagsbykey;
 drop table tags;
 drop table richversionexternalparameters;
 drop table richversions;
 drop table structureversionitems;
 drop table structureversions;
+drop table structuresbyname;
 drop table structures;
+drop table graphlog;
+drop table itemleaves;
 drop table versionhistorydags;
 drop table items;
 drop table versionsuccessors;
@@ -0,0 +1,2 @@
+match (n) where exists(n.id) and not n:GroundVertex set n:GroundVertex;
+exit;
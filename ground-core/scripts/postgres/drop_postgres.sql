@@ -16,9 +16,10 @@ drop table structureversionitems;
 drop table structureversions;
 drop table structures;
 drop type datatype;
+drop table itemleaves;
 drop table versionhistorydags;
 drop table items;
 drop table versionsuccessors;
 drop table versions;
 
-drop function reachable(varchar);
+drop function if exists reachable(varchar);
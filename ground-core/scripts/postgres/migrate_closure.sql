@@ -0,0 +1,3 @@
+/* for databases created before transitive closures used a recursive query */
+drop function if exists reachable(varchar);
+create index if not exists EdgeVersionsByEndpointOne on EdgeVersions(endpoint_one, endpoint_two);
@@ -0,0 +1,14 @@
+/* for databases created before each item's leaf versions were tracked */
+create table if not exists ItemLeaves (
+    item_id varchar not null references Items(id),
+    version_id varchar not null references Versions(id),
+    primary key(item_id, version_id)
+);
+
+/* the leaves of an item are the versions in its history that are no other version's parent */
+insert into ItemLeaves(item_id, version_id)
+select distinct d.item_id, s.vto
+from VersionHistoryDAGs d join VersionSuccessors s on s.successor_id = d.successor_id
+where not exists (select 1 from ItemLeaves l where l.item_id = d.item_id)
+  and not exists (select 1 from VersionHistoryDAGs d2 join VersionSuccessors s2 on s2.successor_id = d2.successor_id
+                  where d2.item_id = d.item_id and s2.vfrom = s.vto);
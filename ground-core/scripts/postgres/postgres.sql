@@ -21,6 +21,12 @@ create table VersionHistoryDAGs (
     primary key(item_id, successor_id)
 );
 
+create table ItemLeaves (
+    item_id varchar not null references Items(id),
+    version_id varchar not null references Versions(id),
+    primary key(item_id, version_id)
+);
+
 
 /* MODELS */
 create type DataType as enum ('integer', 'string', 'boolean');
@@ -91,6 +97,9 @@ create table EdgeVersions (
     endpoint_two varchar not null references NodeVersions(id)
 );
 
+/* transitive closure queries follow edges by their source */
+create index EdgeVersionsByEndpointOne on EdgeVersions(endpoint_one, endpoint_two);
+
 create table GraphVersions (
     id varchar not null primary key references RichVersions(id),
     graph_id varchar not null references Graphs(item_id)
@@ -131,23 +140,3 @@ create table LineageEdgeVersions (
 /* CREATE EMPTY VERSION */
 
 insert into Versions(id) values ('EMPTY');
-
-/* CREATE FUNCTION FOR ITERATION */
-create function reachable(vstart varchar) returns table(dest varchar) as $$ 
-  declare cnt integer;
-  declare prev_cnt integer;
-
-  begin
-    drop table if exists paths;
-    create temp table paths as select endpoint_one, endpoint_two from edgeversions where endpoint_one = vstart;
-    select into cnt count(*) from paths;
-
-    while prev_cnt != cnt loop
-      create temp table new_paths as select endpoint_two, endpoint_two from paths, edgeversions where endpoint_two = endpoint_one;
-      alter table paths rename to old_paths;
-      create table paths as select * from new_paths union select * from old_paths;
-    end loop;
-    return query select endpoint_two from paths;
-  end;
-$$ language plpgsql;
-
@@ -14,17 +14,23 @@
 
 package edu.berkeley.ground;
 
+import edu.berkeley.ground.api.cache.*;
 import edu.berkeley.ground.api.models.*;
 import edu.berkeley.ground.api.usage.LineageEdgeFactory;
 import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
 import edu.berkeley.ground.db.CassandraClient;
+import edu.berkeley.ground.db.CassandraMigrationCommand;
 import edu.berkeley.ground.db.Neo4jClient;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.exceptions.GroundException;
 import edu.berkeley.ground.resources.*;
 import edu.berkeley.ground.util.CassandraFactories;
+import edu.berkeley.ground.util.IdGenerator;
 import edu.berkeley.ground.util.Neo4jFactories;
 import edu.berkeley.ground.util.PostgresFactories;
+import edu.berkeley.ground.util.Sha1IdStrategy;
+import edu.berkeley.ground.util.SnowflakeIdStrategy;
+import edu.berkeley.ground.util.TimeOrderedIdStrategy;
 import io.dropwizard.Application;
 import io.dropwizard.setup.Bootstrap;
 import io.dropwizard.setup.Environment;
@@ -61,19 +67,45 @@ public class GroundServer extends Application<GroundServerConfiguration> {
         return configuration.swaggerBundleConfiguration;
       }
     });
+
+    bootstrap.addCommand(new CassandraMigrationCommand());
   }
 
 
   @Override
   public void run(GroundServerConfiguration configuration, Environment environment) throws GroundException {
+    switch (configuration.getIdStrategy()) {
+      case "sha1":
+        IdGenerator.setStrategy(new Sha1IdStrategy());
+        break;
+
+      case "time":
+        IdGenerator.setStrategy(new TimeOrderedIdStrategy());
+        break;
+
+      case "snowflake":
+        IdGenerator.setStrategy(new SnowflakeIdStrategy(configuration.getIdWorkerId()));
+        break;
+
+      default:
+        throw new RuntimeException("FATAL: Unrecognized id strategy (" + configuration.getIdStrategy() + ").");
+    }
+
     switch (configuration.getDbType()) {
       case "postgres":
-        PostgresClient postgresClient = new PostgresClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword());
+        PostgresClient postgresClient = new PostgresClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword(),
+            configuration.getDbMaxConnections(), configuration.getDbMinIdleConnections(), configuration.getDbConnectionTimeout(), configuration.getDbStatementCacheSize(), environment.metrics());
+        environment.lifecycle().manage(postgresClient);
         setPostgresFactories(postgresClient);
         break;
 
       case "cassandra":
-        CassandraClient cassandraClient = new CassandraClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword());
+        CassandraClient cassandraClient = new CassandraClient(configuration.getDbHost(), configuration.getDbPort(), configuration.getDbName(), configuration.getDbUser(), configuration.getDbPassword(),
+            configuration.getCassandraCoreConnectionsPerHost(), configuration.getCassandraMaxConnectionsPerHost(), configuration.getCassandraMaxRequestsPerConnection(),
+            configuration.getCassandraMaxPendingWrites(), configuration.getCassandraGraphSnapshotPath(),
+            configuration.getCassandraGraphSnapshotInterval(), configuration.getCassandraGraphPollInterval(),
+            environment.metrics());
+        environment.lifecycle().manage(cassandraClient);
         setCassandraFactories(cassandraClient);
         break;
 
@@ -86,10 +118,19 @@ public class GroundServer extends Application<GroundServerConfiguration> {
         throw new RuntimeException("FATAL: Unrecognized database type (" + configuration.getDbType() + ").");
     }
 
+    if (configuration.getVersionCacheBytes() > 0) {
+      setCachedVersionFactories(new VersionCache(configuration.getVersionCacheBytes(), environment.metrics()));
+    }
+
+    if (configuration.getReachabilityIndex()) {
+      setIndexedFactories(new ReachabilityIndex(nodeVersionFactory::getTransitiveClosure,
+          configuration.getReachabilityIndexBytes(), environment.metrics()));
+    }
+
     final EdgesResource edgesResource = new EdgesResource(edgeFactory, edgeVersionFactory);
     final GraphsResource graphsResource = new GraphsResource(graphFactory, graphVersionFactory);
     final LineageEdgesResource lineageEdgesResource = new LineageEdgesResource(lineageEdgeFactory, lineageEdgeVersionFactory);
-    final NodesResource nodesResource = new NodesResource(nodeFactory, nodeVersionFactory);
+    final NodesResource nodesResource = new NodesResource(nodeFactory, nodeVersionFactory, configuration.getClosureTimeout());
     final StructuresResource structuresResource = new StructuresResource(structureFactory, structureVersionFactory);
     final KafkaResource kafkaResource = new KafkaResource(configuration.getKafkaHost(), configuration.getKafkaPort());
 
@@ -101,6 +142,19 @@ public class GroundServer extends Application<GroundServerConfiguration> {
     environment.jersey().register(kafkaResource);
   }
 
+  private void setCachedVersionFactories(VersionCache versionCache) {
+    edgeVersionFactory = new CachedEdgeVersionFactory(edgeVersionFactory, versionCache);
+    graphVersionFactory = new CachedGraphVersionFactory(graphVersionFactory, versionCache);
+    lineageEdgeVersionFactory = new CachedLineageEdgeVersionFactory(lineageEdgeVersionFactory, versionCache);
+    nodeVersionFactory = new CachedNodeVersionFactory(nodeVersionFactory, versionCache);
+    structureVersionFactory = new CachedStructureVersionFactory(structureVersionFactory, versionCache);
+  }
+
+  private void setIndexedFactories(ReachabilityIndex reachabilityIndex) {
+    edgeVersionFactory = new IndexedEdgeVersionFactory(edgeVersionFactory, reachabilityIndex);
+    nodeVersionFactory = new IndexedNodeVersionFactory(nodeVersionFactory, reachabilityIndex);
+  }
+
   private void setPostgresFactories(PostgresClient postgresClient) {
     PostgresFactories factoryGenerator = new PostgresFactories(postgresClient);
 
@@ -46,6 +46,61 @@ public class GroundServerConfiguration extends Configuration {
   @NotEmpty
   private String dbPassword;
 
+  // the maximum number of pooled database connections
+  private Integer dbMaxConnections = 32;
+
+  // the number of idle database connections kept open by the pool
+  private Integer dbMinIdleConnections = 4;
+
+  // the maximum time, in milliseconds, to wait for a pooled database connection
+  private Integer dbConnectionTimeout = 30000;
+
+  // the number of prepared statements cached per database connection; 0 disables the cache
+  private Integer dbStatementCacheSize = 256;
+
+  // the number of connections the Cassandra session keeps open to each host
+  private Integer cassandraCoreConnectionsPerHost = 2;
+
+  // the maximum number of connections the Cassandra session opens to each host
+  private Integer cassandraMaxConnectionsPerHost = 8;
+
+  // the maximum number of concurrent requests on each Cassandra connection
+  private Integer cassandraMaxRequestsPerConnection = 1024;
+
+  // the maximum number of asynchronous writes each Cassandra connection leaves in flight
+  private Integer cassandraMaxPendingWrites = 32;
+
+  // the file the Cassandra version graph is snapshotted to between restarts; empty disables it
+  private String cassandraGraphSnapshotPath = "";
+
+  // the time, in milliseconds, between snapshots of the Cassandra version graph while the server
+  // runs, so that a restart after a crash only replays the log since the last one; 0 only
+  // snapshots at startup and shutdown
+  private Integer cassandraGraphSnapshotInterval = 10 * 60 * 1000;
+
+  // the time, in milliseconds, between polls for graph changes made through other servers; 0
+  // disables polling, which is only safe with a single server
+  private Integer cassandraGraphPollInterval = 1000;
+
+  // the time, in milliseconds, after which a transitive closure query fails
+  private Integer closureTimeout = 30000;
+
+  // the approximate number of bytes of retrieved versions kept in memory; 0 disables the cache
+  private Long versionCacheBytes = 64L * 1024 * 1024;
+
+  // keep an in-memory index of the node versions reachable from each node version; only correct
+  // when this server is the only one writing edges
+  private Boolean reachabilityIndex = false;
+
+  // the approximate number of bytes the reachability index's bitmaps may take up
+  private Long reachabilityIndexBytes = 256L * 1024 * 1024;
+
+  // how ids are generated: sha1, time or snowflake
+  private String idStrategy = "sha1";
+
+  // this server's worker id for snowflake ids; must be unique in the cluster
+  private Integer idWorkerId = 0;
+
   @NotEmpty
   private String kafkaHost;
 
@@ -112,6 +167,176 @@ public class GroundServerConfiguration extends Configuration {
     this.dbPassword = dbPassword;
   }
 
+  @JsonProperty
+  public Integer getDbMaxConnections() {
+    return this.dbMaxConnections;
+  }
+
+  @JsonProperty
+  public void setDbMaxConnections(Integer dbMaxConnections) {
+    this.dbMaxConnections = dbMaxConnections;
+  }
+
+  @JsonProperty
+  public Integer getDbMinIdleConnections() {
+    return this.dbMinIdleConnections;
+  }
+
+  @JsonProperty
+  public void setDbMinIdleConnections(Integer dbMinIdleConnections) {
+    this.dbMinIdleConnections = dbMinIdleConnections;
+  }
+
+  @JsonProperty
+  public Integer getDbConnectionTimeout() {
+    return this.dbConnectionTimeout;
+  }
+
+  @JsonProperty
+  public void setDbConnectionTimeout(Integer dbConnectionTimeout) {
+    this.dbConnectionTimeout = dbConnectionTimeout;
+  }
+
+  @JsonProperty
+  public Integer getDbStatementCacheSize() {
+    return this.dbStatementCacheSize;
+  }
+
+  @JsonProperty
+  public void setDbStatementCacheSize(Integer dbStatementCacheSize) {
+    this.dbStatementCacheSize = dbStatementCacheSize;
+  }
+
+  @JsonProperty
+  public Integer getCassandraCoreConnectionsPerHost() {
+    return this.cassandraCoreConnectionsPerHost;
+  }
+
+  @JsonProperty
+  public void setCassandraCoreConnectionsPerHost(Integer cassandraCoreConnectionsPerHost) {
+    this.cassandraCoreConnectionsPerHost = cassandraCoreConnectionsPerHost;
+  }
+
+  @JsonProperty
+  public Integer getCassandraMaxConnectionsPerHost() {
+    return this.cassandraMaxConnectionsPerHost;
+  }
+
+  @JsonProperty
+  public void setCassandraMaxConnectionsPerHost(Integer cassandraMaxConnectionsPerHost) {
+    this.cassandraMaxConnectionsPerHost = cassandraMaxConnectionsPerHost;
+  }
+
+  @JsonProperty
+  public Integer getCassandraMaxRequestsPerConnection() {
+    return this.cassandraMaxRequestsPerConnection;
+  }
+
+  @JsonProperty
+  public void setCassandraMaxRequestsPerConnection(Integer cassandraMaxRequestsPerConnection) {
+    this.cassandraMaxRequestsPerConnection = cassandraMaxRequestsPerConnection;
+  }
+
+  @JsonProperty
+  public Integer getCassandraMaxPendingWrites() {
+    return this.cassandraMaxPendingWrites;
+  }
+
+  @JsonProperty
+  public void setCassandraMaxPendingWrites(Integer cassandraMaxPendingWrites) {
+    this.cassandraMaxPendingWrites = cassandraMaxPendingWrites;
+  }
+
+  @JsonProperty
+  public String getCassandraGraphSnapshotPath() {
+    return this.cassandraGraphSnapshotPath;
+  }
+
+  @JsonProperty
+  public void setCassandraGraphSnapshotPath(String cassandraGraphSnapshotPath) {
+    this.cassandraGraphSnapshotPath = cassandraGraphSnapshotPath;
+  }
+
+  @JsonProperty
+  public Integer getCassandraGraphSnapshotInterval() {
+    return this.cassandraGraphSnapshotInterval;
+  }
+
+  @JsonProperty
+  public void setCassandraGraphSnapshotInterval(Integer cassandraGraphSnapshotInterval) {
+    this.cassandraGraphSnapshotInterval = cassandraGraphSnapshotInterval;
+  }
+
+  @JsonProperty
+  public Integer getCassandraGraphPollInterval() {
+    return this.cassandraGraphPollInterval;
+  }
+
+  @JsonProperty
+  public void setCassandraGraphPollInterval(Integer cassandraGraphPollInterval) {
+    this.cassandraGraphPollInterval = cassandraGraphPollInterval;
+  }
+
+  @JsonProperty
+  public Long getVersionCacheBytes() {
+    return this.versionCacheBytes;
+  }
+
+  @JsonProperty
+  public void setVersionCacheBytes(Long versionCacheBytes) {
+    this.versionCacheBytes = versionCacheBytes;
+  }
+
+  @JsonProperty
+  public Integer getClosureTimeout() {
+    return this.closureTimeout;
+  }
+
+  @JsonProperty
+  public void setClosureTimeout(Integer closureTimeout) {
+    this.closureTimeout = closureTimeout;
+  }
+
+  @JsonProperty
+  public Boolean getReachabilityIndex() {
+    return this.reachabilityIndex;
+  }
+
+  @JsonProperty
+  public void setReachabilityIndex(Boolean reachabilityIndex) {
+    this.reachabilityIndex = reachabilityIndex;
+  }
+
+  @JsonProperty
+  public Long getReachabilityIndexBytes() {
+    return this.reachabilityIndexBytes;
+  }
+
+  @JsonProperty
+  public void setReachabilityIndexBytes(Long reachabilityIndexBytes) {
+    this.reachabilityIndexBytes = reachabilityIndexBytes;
+  }
+
+  @JsonProperty
+  public String getIdStrategy() {
+    return this.idStrategy;
+  }
+
+  @JsonProperty
+  public void setIdStrategy(String idStrategy) {
+    this.idStrategy = idStrategy;
+  }
+
+  @JsonProperty
+  public Integer getIdWorkerId() {
+    return this.idWorkerId;
+  }
+
+  @JsonProperty
+  public void setIdWorkerId(Integer idWorkerId) {
+    this.idWorkerId = idWorkerId;
+  }
+
   @JsonProperty
   public String getKafkaHost() {
     return this.kafkaHost;
@@ -0,0 +1,53 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.cache;
+
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.EdgeVersionFactory;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.List;
+import java.util.Map;
+
+public class CachedEdgeVersionFactory extends EdgeVersionFactory {
+  private EdgeVersionFactory edgeVersionFactory;
+  private VersionCache versionCache;
+
+  public CachedEdgeVersionFactory(EdgeVersionFactory edgeVersionFactory, VersionCache versionCache) {
+    this.edgeVersionFactory = edgeVersionFactory;
+    this.versionCache = versionCache;
+  }
+
+  public EdgeVersion create(Map<String, Tag> tags,
+                            String structureVersionId,
+                            String reference,
+                            Map<String, String> referenceParameters,
+                            String edgeId,
+                            String fromId,
+                            String toId,
+                            List<String> parentIds) throws GroundException {
+
+    EdgeVersion edgeVersion = this.edgeVersionFactory.create(tags, structureVersionId, reference, referenceParameters, edgeId, fromId, toId, parentIds);
+    this.versionCache.put(edgeVersion);
+
+    return edgeVersion;
+  }
+
+  public EdgeVersion retrieveFromDatabase(String id) throws GroundException {
+    return this.versionCache.retrieve(id, EdgeVersion.class, this.edgeVersionFactory::retrieveFromDatabase);
+  }
+}
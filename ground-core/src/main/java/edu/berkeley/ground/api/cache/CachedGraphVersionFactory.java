@@ -0,0 +1,67 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.cache;
+
+import edu.berkeley.ground.api.models.GraphVersion;
+import edu.berkeley.ground.api.models.GraphVersionFactory;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.List;
+import java.util.Map;
+
+public class CachedGraphVersionFactory extends GraphVersionFactory {
+  private GraphVersionFactory graphVersionFactory;
+  private VersionCache versionCache;
+
+  public CachedGraphVersionFactory(GraphVersionFactory graphVersionFactory, VersionCache versionCache) {
+    this.graphVersionFactory = graphVersionFactory;
+    this.versionCache = versionCache;
+  }
+
+  public GraphVersion create(Map<String, Tag> tags,
+                             String structureVersionId,
+                             String reference,
+                             Map<String, String> referenceParameters,
+                             String graphId,
+                             List<String> edgeVersionIds,
+                             List<String> parentIds) throws GroundException {
+
+    GraphVersion graphVersion = this.graphVersionFactory.create(tags, structureVersionId, reference, referenceParameters, graphId, edgeVersionIds, parentIds);
+    this.versionCache.put(graphVersion);
+
+    return graphVersion;
+  }
+
+  @Override
+  public GraphVersion createBulk(Map<String, Tag> tags,
+                                 String structureVersionId,
+                                 String reference,
+                                 Map<String, String> referenceParameters,
+                                 String graphId,
+                                 List<String> edgeVersionIds,
+                                 List<String> parentIds) throws GroundException {
+
+    GraphVersion graphVersion = this.graphVersionFactory.createBulk(tags, structureVersionId, reference, referenceParameters, graphId, edgeVersionIds, parentIds);
+    this.versionCache.put(graphVersion);
+
+    return graphVersion;
+  }
+
+  public GraphVersion retrieveFromDatabase(String id) throws GroundException {
+    return this.versionCache.retrieve(id, GraphVersion.class, this.graphVersionFactory::retrieveFromDatabase);
+  }
+}
@@ -0,0 +1,53 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.cache;
+
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.usage.LineageEdgeVersion;
+import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.List;
+import java.util.Map;
+
+public class CachedLineageEdgeVersionFactory extends LineageEdgeVersionFactory {
+  private LineageEdgeVersionFactory lineageEdgeVersionFactory;
+  private VersionCache versionCache;
+
+  public CachedLineageEdgeVersionFactory(LineageEdgeVersionFactory lineageEdgeVersionFactory, VersionCache versionCache) {
+    this.lineageEdgeVersionFactory = lineageEdgeVersionFactory;
+    this.versionCache = versionCache;
+  }
+
+  public LineageEdgeVersion create(Map<String, Tag> tags,
+                                   String structureVersionId,
+                                   String reference,
+                                   Map<String, String> referenceParameters,
+                                   String fromId,
+                                   String toId,
+                                   String lineageEdgeId,
+                                   List<String> parentIds) throws GroundException {
+
+    LineageEdgeVersion lineageEdgeVersion = this.lineageEdgeVersionFactory.create(tags, structureVersionId, reference, referenceParameters, fromId, toId, lineageEdgeId, parentIds);
+    this.versionCache.put(lineageEdgeVersion);
+
+    return lineageEdgeVersion;
+  }
+
+  public LineageEdgeVersion retrieveFromDatabase(String id) throws GroundException {
+    return this.versionCache.retrieve(id, LineageEdgeVersion.class, this.lineageEdgeVersionFactory::retrieveFromDatabase);
+  }
+}
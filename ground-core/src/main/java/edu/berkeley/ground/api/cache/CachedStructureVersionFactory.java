@@ -0,0 +1,48 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.cache;
+
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.StructureVersionFactory;
+import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.List;
+import java.util.Map;
+
+public class CachedStructureVersionFactory extends StructureVersionFactory {
+  private StructureVersionFactory structureVersionFactory;
+  private VersionCache versionCache;
+
+  public CachedStructureVersionFactory(StructureVersionFactory structureVersionFactory, VersionCache versionCache) {
+    this.structureVersionFactory = structureVersionFactory;
+    this.versionCache = versionCache;
+  }
+
+  public StructureVersion create(String structureId,
+                                 Map<String, GroundType> attributes,
+                                 List<String> parentIds) throws GroundException {
+
+    StructureVersion structureVersion = this.structureVersionFactory.create(structureId, attributes, parentIds);
+    this.versionCache.put(structureVersion);
+
+    return structureVersion;
+  }
+
+  public StructureVersion retrieveFromDatabase(String id) throws GroundException {
+    return this.versionCache.retrieve(id, StructureVersion.class, this.structureVersionFactory::retrieveFromDatabase);
+  }
+}
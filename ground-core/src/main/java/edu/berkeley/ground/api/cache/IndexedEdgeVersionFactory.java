@@ -0,0 +1,54 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.berkeley.ground.api.cache;
+
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.EdgeVersionFactory;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.List;
+import java.util.Map;
+
+public class IndexedEdgeVersionFactory extends EdgeVersionFactory {
+  private EdgeVersionFactory edgeVersionFactory;
+  private ReachabilityIndex reachabilityIndex;
+
+  public IndexedEdgeVersionFactory(EdgeVersionFactory edgeVersionFactory, ReachabilityIndex reachabilityIndex) {
+    this.edgeVersionFactory = edgeVersionFactory;
+    this.reachabilityIndex = reachabilityIndex;
+  }
+
+  public EdgeVersion create(Map<String, Tag> tags,
+                            String structureVersionId,
+                            String reference,
+                            Map<String, String> referenceParameters,
+                            String edgeId,
+                            String fromId,
+                            String toId,
+                            List<String> parentIds) throws GroundException {
+
+    EdgeVersion edgeVersion = this.edgeVersionFactory.create(tags, structureVersionId, reference, referenceParameters, edgeId, fromId, toId, parentIds);
+
+    // only once the edge is stored, so that a closure loaded concurrently sees it as well
+    this.reachabilityIndex.addEdge(fromId, toId);
+
+    return edgeVersion;
+  }
+
+  public EdgeVersion retrieveFromDatabase(String id) throws GroundException {
+    return this.edgeVersionFactory.retrieveFromDatabase(id);
+  }
+}
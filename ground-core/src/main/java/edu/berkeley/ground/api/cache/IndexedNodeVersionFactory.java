@@ -0,0 +1,86 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.berkeley.ground.api.cache;
+
+import edu.berkeley.ground.api.models.ClosureBounds;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class IndexedNodeVersionFactory extends NodeVersionFactory {
+  private NodeVersionFactory nodeVersionFactory;
+  private ReachabilityIndex reachabilityIndex;
+
+  public IndexedNodeVersionFactory(NodeVersionFactory nodeVersionFactory, ReachabilityIndex reachabilityIndex) {
+    this.nodeVersionFactory = nodeVersionFactory;
+    this.reachabilityIndex = reachabilityIndex;
+  }
+
+  public NodeVersion create(Map<String, Tag> tags,
+                            String structureVersionId,
+                            String reference,
+                            Map<String, String> referenceParameters,
+                            String nodeId,
+                            List<String> parentIds) throws GroundException {
+
+    return this.nodeVersionFactory.create(tags, structureVersionId, reference, referenceParameters, nodeId, parentIds);
+  }
+
+  @Override
+  public List<NodeVersion> create(List<NodeVersion> nodeVersions, List<String> parentIds) throws GroundException {
+    return this.nodeVersionFactory.create(nodeVersions, parentIds);
+  }
+
+  public NodeVersion retrieveFromDatabase(String id) throws GroundException {
+    return this.nodeVersionFactory.retrieveFromDatabase(id);
+  }
+
+  public List<String> getTransitiveClosure(String nodeVersionId) throws GroundException {
+    List<String> result = new ArrayList<>();
+    this.reachabilityIndex.getDescendants(nodeVersionId, 0, result::add);
+
+    return result;
+  }
+
+  public List<String> getAdjacentNodes(String nodeVersionId, String edgeNameLike) throws GroundException {
+    return this.nodeVersionFactory.getAdjacentNodes(nodeVersionId, edgeNameLike);
+  }
+
+  @Override
+  public void getTransitiveClosure(String nodeVersionId, ClosureBounds bounds, Consumer<String> consumer) throws GroundException {
+    // the index only holds whole closures, so depth and edge name bounds go to the store
+    if (bounds.filtersPaths()) {
+      this.nodeVersionFactory.getTransitiveClosure(nodeVersionId, bounds, consumer);
+    } else {
+      this.reachabilityIndex.getDescendants(nodeVersionId, bounds.getLimit(), consumer);
+    }
+  }
+
+  @Override
+  public boolean isReachable(String fromId, String toId) throws GroundException {
+    return this.reachabilityIndex.isReachable(fromId, toId);
+  }
+
+  @Override
+  public void getAdjacentNodes(String nodeVersionId, String edgeNameLike, Consumer<String> consumer) throws GroundException {
+    this.nodeVersionFactory.getAdjacentNodes(nodeVersionId, edgeNameLike, consumer);
+  }
+}
@@ -0,0 +1,383 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * An in-process index of the node versions reachable from each node version. Node versions and
+ * edge versions are never changed or removed once they are created, so a descendant set only
+ * ever grows: adding an edge from u to v adds v and the descendants of v to u and to every
+ * node version that reaches u.
+ *
+ * Node versions are given dense integer ids, and each descendant set is a bitmap over them. A
+ * node version's descendants are read from the store the first time they are asked for; after
+ * that they are kept up to date by addEdge. So that addEdge can find the sets it has to change,
+ * the index also keeps, for each node version, the set of indexed node versions that reach it.
+ *
+ * The bitmaps are kept within a byte budget: when they grow past it, the least recently used
+ * descendant sets are evicted (and loaded again when next asked for) until they are back under
+ * three quarters of it. The budget covers the bitmaps only, not the id mapping, which holds one
+ * entry for every node version the index has seen.
+ *
+ * The index only sees edges created through this process, so it must only be enabled when this
+ * server is the only writer.
+ */
+public class ReachabilityIndex {
+  private final ClosureLoader loader;
+  private final long maxBytes;
+
+  private final Map<String, Integer> ids = new HashMap<>();
+  private final List<String> nodeVersionIds = new ArrayList<>();
+
+  // descendants.get(i) is null until the descendants of node version i are loaded
+  private final List<BitSet> descendants = new ArrayList<>();
+  // ancestors.get(i) holds the indexed node versions that reach node version i, or is null if none do
+  private final List<BitSet> ancestors = new ArrayList<>();
+
+  // lastUsed[i] is the clock value of the last read or load of the descendants of node version i;
+  // hits write it under the read lock, so concurrent hits only make the eviction order approximate
+  private long[] lastUsed = new long[16];
+  private final AtomicLong clock = new AtomicLong();
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // incremented by every edge that is added, so that a load can tell whether it raced with one
+  private long modifications = 0;
+  private int indexed = 0;
+  // the allocated size of all of the descendant and ancestor sets
+  private long bytes = 0;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Create an empty index.
+   *
+   * @param loader         reads a closure from the store
+   * @param maxBytes       the approximate number of bytes the bitmaps may take up
+   * @param metricRegistry the registry to report hits, misses, evictions and size to
+   */
+  public ReachabilityIndex(ClosureLoader loader, long maxBytes, MetricRegistry metricRegistry) {
+    this.loader = loader;
+    this.maxBytes = maxBytes;
+
+    metricRegistry.register(MetricRegistry.name(ReachabilityIndex.class, "hits"), (Gauge<Long>) this.hits::get);
+    metricRegistry.register(MetricRegistry.name(ReachabilityIndex.class, "misses"), (Gauge<Long>) this.misses::get);
+    metricRegistry.register(MetricRegistry.name(ReachabilityIndex.class, "indexed"), (Gauge<Integer>) () -> {
+      this.lock.readLock().lock();
+      try {
+        return this.indexed;
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    });
+    metricRegistry.register(MetricRegistry.name(ReachabilityIndex.class, "evictions"), (Gauge<Long>) this.evictions::get);
+    metricRegistry.register(MetricRegistry.name(ReachabilityIndex.class, "bytes"), (Gauge<Long>) () -> {
+      this.lock.readLock().lock();
+      try {
+        return this.bytes;
+      } finally {
+        this.lock.readLock().unlock();
+      }
+    });
+  }
+
+  /**
+   * Pass each node version reachable from a node version to consumer, loading the closure from
+   * the store if it isn't indexed yet.
+   *
+   * @param nodeVersionId the node version to start from
+   * @param limit         the maximum number of ids to pass; 0 for no limit
+   * @param consumer      receives the ids
+   */
+  public void getDescendants(String nodeVersionId, int limit, Consumer<String> consumer) throws GroundException {
+    BitSet result = this.copyDescendants(nodeVersionId);
+
+    // the copy lets consumer write to a slow client without holding the lock
+    List<String> names = new ArrayList<>(result.cardinality());
+    this.lock.readLock().lock();
+    try {
+      for (int i = result.nextSetBit(0); i >= 0 && (limit <= 0 || names.size() < limit); i = result.nextSetBit(i + 1)) {
+        names.add(this.nodeVersionIds.get(i));
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    names.forEach(consumer);
+  }
+
+  /**
+   * Check whether a node version is downstream of another.
+   *
+   * @param fromId the upstream node version
+   * @param toId   the possibly downstream node version
+   * @return true if there is a path of edges from fromId to toId
+   */
+  public boolean isReachable(String fromId, String toId) throws GroundException {
+    BitSet result = this.copyDescendants(fromId);
+
+    this.lock.readLock().lock();
+    try {
+      Integer to = this.ids.get(toId);
+      return to != null && result.get(to);
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Record an edge that was just created.
+   *
+   * @param fromId the source of the edge
+   * @param toId   the destination of the edge
+   */
+  public void addEdge(String fromId, String toId) throws GroundException {
+    // the closure of toId is needed if anything indexed reaches fromId; if toId isn't indexed,
+    // load it before taking the write lock, since the read goes to the store
+    boolean affected;
+    boolean loaded;
+    this.lock.readLock().lock();
+    try {
+      Integer from = this.ids.get(fromId);
+      Integer to = this.ids.get(toId);
+
+      affected = from != null && (this.descendants.get(from) != null || this.ancestors.get(from) != null);
+      loaded = to != null && this.descendants.get(to) != null;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    if (affected && !loaded) {
+      this.load(toId);
+    }
+
+    this.lock.writeLock().lock();
+    try {
+      // counted even if no set changes, since a closure being loaded may include fromId
+      this.modifications++;
+
+      int from = this.getId(fromId);
+      int to = this.getId(toId);
+
+      // copied, since the loops below change the ancestor sets
+      BitSet reached = this.ancestors.get(from) == null ? new BitSet() : (BitSet) this.ancestors.get(from).clone();
+      if (this.descendants.get(from) != null) {
+        reached.set(from);
+      }
+
+      if (reached.isEmpty()) {
+        return;
+      }
+
+      if (this.descendants.get(to) == null) {
+        // toId was added concurrently and couldn't be loaded consistently, so drop the sets that
+        // would need its closure; they are loaded again when next asked for
+        for (int i = reached.nextSetBit(0); i >= 0; i = reached.nextSetBit(i + 1)) {
+          this.evict(i);
+        }
+
+        return;
+      }
+
+      BitSet added = (BitSet) this.descendants.get(to).clone();
+      added.set(to);
+
+      for (int i = reached.nextSetBit(0); i >= 0; i = reached.nextSetBit(i + 1)) {
+        this.or(this.descendants.get(i), added);
+      }
+
+      for (int i = added.nextSetBit(0); i >= 0; i = added.nextSetBit(i + 1)) {
+        this.or(this.getAncestors(i), reached);
+      }
+
+      this.trim();
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  private BitSet copyDescendants(String nodeVersionId) throws GroundException {
+    this.lock.readLock().lock();
+    try {
+      Integer id = this.ids.get(nodeVersionId);
+      if (id != null && this.descendants.get(id) != null) {
+        this.hits.incrementAndGet();
+        this.lastUsed[id] = this.clock.incrementAndGet();
+        return (BitSet) this.descendants.get(id).clone();
+      }
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    this.misses.incrementAndGet();
+    return this.load(nodeVersionId);
+  }
+
+  /**
+   * Read a closure from the store and index it, unless an edge was added while it was read, in
+   * which case the closure may be out of date before it is indexed.
+   */
+  private BitSet load(String nodeVersionId) throws GroundException {
+    long before;
+    this.lock.readLock().lock();
+    try {
+      before = this.modifications;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+
+    List<String> closure = this.loader.load(nodeVersionId);
+
+    this.lock.writeLock().lock();
+    try {
+      BitSet result = new BitSet();
+      for (String descendant : closure) {
+        result.set(this.getId(descendant));
+      }
+
+      int id = this.getId(nodeVersionId);
+      if (before == this.modifications && this.descendants.get(id) == null) {
+        BitSet loaded = (BitSet) result.clone();
+        this.descendants.set(id, loaded);
+        this.bytes += loaded.size() / 8;
+        this.lastUsed[id] = this.clock.incrementAndGet();
+        this.indexed++;
+
+        BitSet self = new BitSet();
+        self.set(id);
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+          this.or(this.getAncestors(i), self);
+        }
+
+        this.trim();
+      }
+
+      return result;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  // must be called with the write lock held
+  private BitSet getAncestors(int id) {
+    BitSet ancestors = this.ancestors.get(id);
+    if (ancestors == null) {
+      ancestors = new BitSet();
+      this.ancestors.set(id, ancestors);
+      this.bytes += ancestors.size() / 8;
+    }
+
+    return ancestors;
+  }
+
+  // must be called with the write lock held
+  private void or(BitSet set, BitSet bits) {
+    int size = set.size();
+
+    set.or(bits);
+    this.bytes += (set.size() - size) / 8;
+  }
+
+  /**
+   * Evict the least recently used descendant sets until the bitmaps are under three quarters of
+   * the budget, so that a full index doesn't evict on every load. Must be called with the write
+   * lock held.
+   */
+  private void trim() {
+    if (this.bytes <= this.maxBytes) {
+      return;
+    }
+
+    List<Integer> candidates = new ArrayList<>(this.indexed);
+    for (int i = 0; i < this.descendants.size(); i++) {
+      if (this.descendants.get(i) != null) {
+        candidates.add(i);
+      }
+    }
+
+    candidates.sort((first, second) -> Long.compare(this.lastUsed[first], this.lastUsed[second]));
+
+    long target = this.maxBytes / 4 * 3;
+    for (int i = 0; i < candidates.size() && this.bytes > target; i++) {
+      this.evict(candidates.get(i));
+      this.evictions.incrementAndGet();
+    }
+  }
+
+  // must be called with the write lock held
+  private void evict(int id) {
+    BitSet evicted = this.descendants.get(id);
+    if (evicted == null) {
+      return;
+    }
+
+    for (int i = evicted.nextSetBit(0); i >= 0; i = evicted.nextSetBit(i + 1)) {
+      BitSet ancestors = this.ancestors.get(i);
+      ancestors.clear(id);
+
+      // a cleared BitSet keeps its words, so drop the ones that no longer hold anything
+      if (ancestors.isEmpty()) {
+        this.ancestors.set(i, null);
+        this.bytes -= ancestors.size() / 8;
+      }
+    }
+
+    this.descendants.set(id, null);
+    this.bytes -= evicted.size() / 8;
+    this.indexed--;
+  }
+
+  // must be called with the write lock held
+  private int getId(String nodeVersionId) {
+    Integer id = this.ids.get(nodeVersionId);
+    if (id != null) {
+      return id;
+    }
+
+    id = this.nodeVersionIds.size();
+    this.ids.put(nodeVersionId, id);
+    this.nodeVersionIds.add(nodeVersionId);
+    this.descendants.add(null);
+    this.ancestors.add(null);
+
+    if (id == this.lastUsed.length) {
+      this.lastUsed = Arrays.copyOf(this.lastUsed, 2 * id);
+    }
+
+    return id;
+  }
+
+  public interface ClosureLoader {
+    List<String> load(String nodeVersionId) throws GroundException;
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.GraphVersion;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.RichVersion;
+import edu.berkeley.ground.api.models.StructureVersion;
+import edu.berkeley.ground.api.models.Tag;
+import edu.berkeley.ground.api.usage.LineageEdgeVersion;
+import edu.berkeley.ground.api.versions.Version;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * An in-process cache of retrieved versions. Versions are immutable once they are created, so
+ * entries never need to be invalidated; the cache only evicts to stay within its byte budget.
+ */
+public class VersionCache {
+  // rough per-object and per-string overheads used to estimate the size of a version
+  private static final int OBJECT_OVERHEAD = 16;
+  private static final int STRING_OVERHEAD = 40;
+  private static final int ENTRY_OVERHEAD = 32;
+
+  private final Cache<String, Version> cache;
+
+  public VersionCache(long maxBytes, MetricRegistry metricRegistry) {
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxBytes)
+        .weigher((String id, Version version) -> estimateSize(version))
+        .recordStats()
+        .build();
+
+    metricRegistry.register(MetricRegistry.name(VersionCache.class, "hits"), (Gauge<Long>) () -> this.cache.stats().hitCount());
+    metricRegistry.register(MetricRegistry.name(VersionCache.class, "misses"), (Gauge<Long>) () -> this.cache.stats().missCount());
+    metricRegistry.register(MetricRegistry.name(VersionCache.class, "evictions"), (Gauge<Long>) () -> this.cache.stats().evictionCount());
+    metricRegistry.register(MetricRegistry.name(VersionCache.class, "size"), (Gauge<Long>) this.cache::size);
+  }
+
+  /**
+   * Retrieve a version from the cache, loading it from the store on a miss.
+   *
+   * @param id     the id of the version
+   * @param type   the type of version expected
+   * @param loader reads the version from the store
+   * @return the version
+   */
+  public <T extends Version> T retrieve(String id, Class<T> type, VersionLoader<T> loader) throws GroundException {
+    Version cached = this.cache.getIfPresent(id);
+
+    // a version of a different type is left to the loader, which reports it as not found
+    if (type.isInstance(cached)) {
+      return type.cast(cached);
+    }
+
+    T version = loader.load(id);
+    this.cache.put(id, version);
+
+    return version;
+  }
+
+  /**
+   * Add a version that was just created, so the first read of it doesn't go to the store.
+   *
+   * @param version the new version
+   */
+  public void put(Version version) {
+    this.cache.put(version.getId(), version);
+  }
+
+  public interface VersionLoader<T extends Version> {
+    T load(String id) throws GroundException;
+  }
+
+  static int estimateSize(Version version) {
+    int size = OBJECT_OVERHEAD + estimateSize(version.getId());
+
+    if (version instanceof RichVersion) {
+      RichVersion richVersion = (RichVersion) version;
+
+      size += estimateSize(richVersion.getStructureVersionId()) + estimateSize(richVersion.getReference());
+
+      if (richVersion.getTags() != null) {
+        for (Tag tag : richVersion.getTags().values()) {
+          Object value = tag.getValue();
+
+          size += ENTRY_OVERHEAD + OBJECT_OVERHEAD + 2 * estimateSize(tag.getKey())
+              + (value == null ? 0 : estimateSize(value.toString()));
+        }
+      }
+
+      size += estimateSize(richVersion.getParameters());
+    }
+
+    if (version instanceof NodeVersion) {
+      size += estimateSize(((NodeVersion) version).getNodeId());
+    } else if (version instanceof EdgeVersion) {
+      EdgeVersion edgeVersion = (EdgeVersion) version;
+      size += estimateSize(edgeVersion.getEdgeId()) + estimateSize(edgeVersion.getFromId()) + estimateSize(edgeVersion.getToId());
+    } else if (version instanceof GraphVersion) {
+      GraphVersion graphVersion = (GraphVersion) version;
+      size += estimateSize(graphVersion.getGraphId()) + estimateSize(graphVersion.getEdgeVersionIds());
+    } else if (version instanceof LineageEdgeVersion) {
+      LineageEdgeVersion lineageEdgeVersion = (LineageEdgeVersion) version;
+      size += estimateSize(lineageEdgeVersion.getLineageEdgeId()) + estimateSize(lineageEdgeVersion.getFromId())
+          + estimateSize(lineageEdgeVersion.getToId());
+    } else if (version instanceof StructureVersion) {
+      StructureVersion structureVersion = (StructureVersion) version;
+      size += estimateSize(structureVersion.getStructureId());
+
+      if (structureVersion.getAttributes() != null) {
+        for (String key : structureVersion.getAttributes().keySet()) {
+          size += ENTRY_OVERHEAD + estimateSize(key);
+        }
+      }
+    }
+
+    return size;
+  }
+
+  private static int estimateSize(Map<String, String> map) {
+    if (map == null) {
+      return 0;
+    }
+
+    int size = OBJECT_OVERHEAD;
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      size += ENTRY_OVERHEAD + estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+    }
+
+    return size;
+  }
+
+  private static int estimateSize(Collection<String> strings) {
+    if (strings == null) {
+      return 0;
+    }
+
+    int size = OBJECT_OVERHEAD;
+    for (String string : strings) {
+      size += 8 + estimateSize(string);
+    }
+
+    return size;
+  }
+
+  private static int estimateSize(String string) {
+    return string == null ? 0 : STRING_OVERHEAD + 2 * string.length();
+  }
+}
@@ -0,0 +1,72 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.berkeley.ground.api.models;
+
+/**
+ * Limits on a transitive closure query. A value of 0 means no limit; a null edge name pattern
+ * follows every edge.
+ */
+public class ClosureBounds {
+  public static final ClosureBounds UNBOUNDED = new ClosureBounds(0, null, 0, 0);
+
+  // the maximum number of edges between the start and a result
+  private final int maxDepth;
+
+  // only edges whose id contains a match for this regex are followed
+  private final String edgeNamePattern;
+
+  // the maximum number of results
+  private final int limit;
+
+  // the time, in milliseconds, after which the query fails
+  private final long timeout;
+
+  public ClosureBounds(int maxDepth, String edgeNamePattern, int limit, long timeout) {
+    this.maxDepth = maxDepth;
+    this.edgeNamePattern = edgeNamePattern;
+    this.limit = limit;
+    this.timeout = timeout;
+  }
+
+  public int getMaxDepth() {
+    return this.maxDepth;
+  }
+
+  /**
+   * The pattern is matched against the edge's id, which is "Edges." followed by its name, and
+   * not against the bare name; a pattern anchored with ^ to the start of the name matches no
+   * edge on any backend. It only has to match part of the id.
+   *
+   * @return the regex edges have to contain a match for, or null to follow every edge
+   */
+  public String getEdgeNamePattern() {
+    return this.edgeNamePattern;
+  }
+
+  public int getLimit() {
+    return this.limit;
+  }
+
+  public long getTimeout() {
+    return this.timeout;
+  }
+
+  /**
+   * @return whether the results depend on more than the limit and timeout
+   */
+  public boolean filtersPaths() {
+    return this.maxDepth > 0 || this.edgeNamePattern != null;
+  }
+}
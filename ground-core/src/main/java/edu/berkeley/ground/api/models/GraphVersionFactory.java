@@ -28,6 +28,21 @@ public abstract class GraphVersionFactory {
                                       List<String> edgeVersionIds,
                                       List<String> parentIds) throws GroundException;
 
+  /**
+   * Create a GraphVersion with a very large number of edges. Backends that have a faster path
+   * for loading many rows at once override this; by default it is the same as create.
+   */
+  public GraphVersion createBulk(Map<String, Tag> tags,
+                                 String structureVersionId,
+                                 String reference,
+                                 Map<String, String> referenceParameters,
+                                 String graphId,
+                                 List<String> edgeVersionIds,
+                                 List<String> parentIds) throws GroundException {
+
+    return this.create(tags, structureVersionId, reference, referenceParameters, graphId, edgeVersionIds, parentIds);
+  }
+
   public abstract GraphVersion retrieveFromDatabase(String id) throws GroundException;
 
   protected static GraphVersion construct(String id,
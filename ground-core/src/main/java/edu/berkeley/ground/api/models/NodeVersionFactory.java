@@ -16,8 +16,10 @@ package edu.berkeley.ground.api.models;
 
 import edu.berkeley.ground.exceptions.GroundException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public abstract class NodeVersionFactory {
   public abstract NodeVersion create(Map<String, Tag> tags,
@@ -27,12 +29,71 @@ public abstract class NodeVersionFactory {
                                      String nodeId,
                                      List<String> parentIds) throws GroundException;
 
+  /**
+   * Create several NodeVersions with the same parents. By default each version is created in its
+   * own transaction; backends that can send the writes together override this.
+   */
+  public List<NodeVersion> create(List<NodeVersion> nodeVersions, List<String> parentIds) throws GroundException {
+    List<NodeVersion> result = new ArrayList<>();
+
+    for (NodeVersion nodeVersion : nodeVersions) {
+      // create may add to the list of parents, so each version gets its own copy
+      result.add(this.create(nodeVersion.getTags(), nodeVersion.getStructureVersionId(), nodeVersion.getReference(),
+          nodeVersion.getParameters(), nodeVersion.getNodeId(), new ArrayList<>(parentIds)));
+    }
+
+    return result;
+  }
+
   public abstract NodeVersion retrieveFromDatabase(String id) throws GroundException;
 
+  /**
+   * Get the node versions reachable from a node version by a path of at least one edge, each of
+   * them once. The start itself is only included if it is on a cycle. Every backend returns the
+   * same set; only the order differs.
+   *
+   * @param nodeVersionId the node version to start from
+   * @return the ids of the reachable node versions
+   */
   public abstract List<String> getTransitiveClosure(String nodeVersionId) throws GroundException;
 
   public abstract List<String> getAdjacentNodes(String nodeVersionId, String edgeNameLike) throws GroundException;
 
+  /**
+   * Pass each node version in the transitive closure, within bounds, to consumer. The start is
+   * included on the same terms, when a path within the bounds leads back to it. Backends that can
+   * read the closure incrementally override this, so that it doesn't have to be held in memory.
+   * By default only the limit is supported, and it is applied after the whole closure is read.
+   */
+  public void getTransitiveClosure(String nodeVersionId, ClosureBounds bounds, Consumer<String> consumer) throws GroundException {
+    if (bounds.filtersPaths()) {
+      throw new GroundException("Bounding the transitive closure by depth or edge name is not supported by this database.");
+    }
+
+    List<String> closure = this.getTransitiveClosure(nodeVersionId);
+    if (bounds.getLimit() > 0 && closure.size() > bounds.getLimit()) {
+      closure = closure.subList(0, bounds.getLimit());
+    }
+
+    closure.forEach(consumer);
+  }
+
+  /**
+   * Check whether toId is downstream of fromId. By default this reads the whole closure of
+   * fromId.
+   */
+  public boolean isReachable(String fromId, String toId) throws GroundException {
+    return this.getTransitiveClosure(fromId).contains(toId);
+  }
+
+  /**
+   * Pass each adjacent node version to consumer. Backends that can read the results
+   * incrementally override this, so that they don't have to be held in memory.
+   */
+  public void getAdjacentNodes(String nodeVersionId, String edgeNameLike, Consumer<String> consumer) throws GroundException {
+    this.getAdjacentNodes(nodeVersionId, edgeNameLike).forEach(consumer);
+  }
+
   public static NodeVersion construct(String id,
                                       Map<String, Tag> tags,
                                       String structureVersionId,
@@ -14,13 +14,22 @@
 
 package edu.berkeley.ground.api.models;
 
-import edu.berkeley.ground.api.versions.GroundType;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 
 import java.util.Map;
 
 public abstract class RichVersionFactory {
+  // the number of compiled StructureVersion schemas kept for validating tags
+  private static final int STRUCTURE_SCHEMA_CACHE_SIZE = 1024;
+
+  private final Cache<String, StructureSchema> structureSchemas = CacheBuilder.newBuilder()
+      .maximumSize(STRUCTURE_SCHEMA_CACHE_SIZE)
+      .build();
+
   public abstract void insertIntoDatabase(GroundDBConnection connection,
                                           String id,
                                           Map<String, Tag> tags,
@@ -39,27 +48,31 @@ public abstract class RichVersionFactory {
   }
 
   /**
-   * Validate that the given Tags satisfy the StructureVersion's requirements.
+   * Validate that the given Tags satisfy the requirements of the StructureVersion with the given
+   * id. StructureVersions are immutable, so each one is read (on the caller's connection) and
+   * compiled once, then reused for every later insert that refers to it.
    *
-   * @param structureVersion the StructureVersion to check against
-   * @param tags             the provided tags
+   * @param connection         the connection of the current transaction
+   * @param structureVersionId the id of the StructureVersion to check against
+   * @param tags               the provided tags
    */
-  protected static void checkStructureTags(StructureVersion structureVersion, Map<String, Tag> tags) throws GroundException {
-    Map<String, GroundType> structureVersionAttributes = structureVersion.getAttributes();
+  protected void checkStructureTags(GroundDBConnection connection, String structureVersionId, Map<String, Tag> tags) throws GroundException {
+    StructureSchema structureSchema = this.structureSchemas.getIfPresent(structureVersionId);
 
-    if (tags.isEmpty()) {
-      throw new GroundException("No tags were specified");
+    if (structureSchema == null) {
+      structureSchema = new StructureSchema(this.retrieveStructureVersion(connection, structureVersionId));
+      this.structureSchemas.put(structureVersionId, structureSchema);
     }
 
-    for (String key : structureVersionAttributes.keySet()) {
-      // check if such a tag exists
-      if (!tags.keySet().contains(key)) {
-        throw new GroundException("No tag with key " + key + " was specified.");
-      } else if (tags.get(key).getValueType() == null) { // check that value type is specified
-        throw new GroundException("Tag with key " + key + " did not have a value.");
-      } else if (!tags.get(key).getValueType().equals(structureVersionAttributes.get(key))) { // check that the value type is the same
-        throw new GroundException("Tag with key " + key + " did not have a value of the correct type.");
-      }
-    }
+    structureSchema.check(tags);
   }
+
+  /**
+   * Retrieve a StructureVersion using the connection of the current transaction.
+   *
+   * @param connection         the connection to read with
+   * @param structureVersionId the id of the StructureVersion
+   * @return the StructureVersion
+   */
+  protected abstract StructureVersion retrieveStructureVersion(GroundDBConnection connection, String structureVersionId) throws GroundException;
 }
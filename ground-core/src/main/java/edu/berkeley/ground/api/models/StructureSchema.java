@@ -0,0 +1,70 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.api.models;
+
+import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import java.util.Map;
+
+/**
+ * The attributes required by a StructureVersion, flattened into arrays so that checking a set
+ * of Tags against them doesn't have to go through the StructureVersion's map.
+ */
+class StructureSchema {
+  private final String[] keys;
+  private final GroundType[] types;
+
+  StructureSchema(StructureVersion structureVersion) {
+    Map<String, GroundType> attributes = structureVersion.getAttributes();
+
+    this.keys = new String[attributes.size()];
+    this.types = new GroundType[attributes.size()];
+
+    int index = 0;
+    for (Map.Entry<String, GroundType> attribute : attributes.entrySet()) {
+      this.keys[index] = attribute.getKey();
+      this.types[index] = attribute.getValue();
+
+      index++;
+    }
+  }
+
+  /**
+   * Validate that the given Tags satisfy this schema.
+   *
+   * @param tags the provided tags
+   */
+  void check(Map<String, Tag> tags) throws GroundException {
+    if (tags.isEmpty()) {
+      throw new GroundException("No tags were specified");
+    }
+
+    for (int i = 0; i < this.keys.length; i++) {
+      String key = this.keys[i];
+      Tag tag = tags.get(key);
+
+      // check if such a tag exists
+      if (tag == null) {
+        throw new GroundException("No tag with key " + key + " was specified.");
+      } else if (tag.getValueType() == null) { // check that value type is specified
+        throw new GroundException("Tag with key " + key + " did not have a value.");
+      } else if (tag.getValueType() != this.types[i]) { // check that the value type is the same
+        throw new GroundException("Tag with key " + key + " did not have a value of the correct type.");
+      }
+    }
+  }
+}
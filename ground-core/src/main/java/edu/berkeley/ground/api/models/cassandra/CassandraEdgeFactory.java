@@ -57,6 +57,7 @@ public class CassandraEdgeFactory extends EdgeFactory {
       insertions.add(new DbDataContainer("item_id", GroundType.STRING, uniqueId));
 
       connection.insert("Edges", insertions);
+      connection.insert("EdgesByName", insertions);
 
       connection.commit();
       LOGGER.info("Created edge " + name + ".");
@@ -78,7 +79,7 @@ public class CassandraEdgeFactory extends EdgeFactory {
 
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("Edges", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.equalitySelect("EdgesByName", DBClient.SELECT_STAR, predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No Edge found with name " + name + ".");
       }
@@ -87,7 +88,7 @@ public class CassandraEdgeFactory extends EdgeFactory {
         throw new GroundException("No Edge found with name " + name + ".");
       }
 
-      String id = resultSet.getString(0);
+      String id = resultSet.getString("item_id");
 
       connection.commit();
       LOGGER.info("Retrieved edge " + name + ".");
@@ -74,6 +74,7 @@ public class CassandraEdgeVersionFactory extends EdgeVersionFactory {
       insertions.add(new DbDataContainer("endpoint_two", GroundType.STRING, toId));
 
       connection.insert("EdgeVersions", insertions);
+      connection.insert("EdgeVersionsByEndpoint", insertions);
 
       this.edgeFactory.update(connection, edgeId, id, parentIds);
 
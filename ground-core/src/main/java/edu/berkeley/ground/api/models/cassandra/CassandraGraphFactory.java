@@ -56,6 +56,7 @@ public class CassandraGraphFactory extends GraphFactory {
       insertions.add(new DbDataContainer("item_id", GroundType.STRING, uniqueId));
 
       connection.insert("Graphs", insertions);
+      connection.insert("GraphsByName", insertions);
 
       connection.commit();
       LOGGER.info("Created graph " + name + ".");
@@ -77,7 +78,7 @@ public class CassandraGraphFactory extends GraphFactory {
 
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("Graphs", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.equalitySelect("GraphsByName", DBClient.SELECT_STAR, predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No Graph found with name " + name + ".");
       }
@@ -86,7 +87,7 @@ public class CassandraGraphFactory extends GraphFactory {
         throw new GroundException("No Graph found with name " + name + ".");
       }
 
-      String id = resultSet.getString(0);
+      String id = resultSet.getString("item_id");
 
       connection.commit();
       LOGGER.info("Retrieved graph " + name + ".");
@@ -72,14 +72,17 @@ public class CassandraGraphVersionFactory extends GraphVersionFactory {
 
       connection.insert("GraphVersions", insertions);
 
+      List<List<DbDataContainer>> edgeInsertions = new ArrayList<>();
       for (String edgeVersionId : edgeVersionIds) {
         List<DbDataContainer> edgeInsertion = new ArrayList<>();
         edgeInsertion.add(new DbDataContainer("gvid", GroundType.STRING, id));
         edgeInsertion.add(new DbDataContainer("evid", GroundType.STRING, edgeVersionId));
 
-        connection.insert("GraphVersionEdges", edgeInsertion);
+        edgeInsertions.add(edgeInsertion);
       }
 
+      connection.insertBatch("GraphVersionEdges", edgeInsertions);
+
       this.graphFactory.update(connection, graphId, id, parentIds);
 
       connection.commit();
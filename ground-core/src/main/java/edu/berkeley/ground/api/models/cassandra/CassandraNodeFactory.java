@@ -57,6 +57,7 @@ public class CassandraNodeFactory extends NodeFactory {
       insertions.add(new DbDataContainer("item_id", GroundType.STRING, uniqueId));
 
       connection.insert("Nodes", insertions);
+      connection.insert("NodesByName", insertions);
 
       connection.commit();
       LOGGER.info("Created node " + name + ".");
@@ -86,7 +87,7 @@ public class CassandraNodeFactory extends NodeFactory {
 
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("Nodes", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.equalitySelect("NodesByName", DBClient.SELECT_STAR, predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No Node found with name " + name + ".");
       }
@@ -95,7 +96,7 @@ public class CassandraNodeFactory extends NodeFactory {
         throw new GroundException("No Node found with name " + name + ".");
       }
 
-      String id = resultSet.getString(0);
+      String id = resultSet.getString("item_id");
 
       connection.commit();
       LOGGER.info("Retrieved node " + name + ".");
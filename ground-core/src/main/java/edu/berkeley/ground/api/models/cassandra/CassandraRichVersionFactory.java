@@ -54,9 +54,7 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
     this.versionFactory.insertIntoDatabase(connection, id);
 
     if (structureVersionId != null) {
-      StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId);
-
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+      this.checkStructureTags(connection, structureVersionId, tags);
     }
 
     List<DbDataContainer> insertions = new ArrayList<>();
@@ -66,6 +64,7 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
 
     connection.insert("RichVersions", insertions);
 
+    List<List<DbDataContainer>> tagInsertions = new ArrayList<>();
     for (String key : tags.keySet()) {
       Tag tag = tags.get(key);
 
@@ -81,17 +80,35 @@ public class CassandraRichVersionFactory extends RichVersionFactory {
         tagInsertion.add(new DbDataContainer("type", GroundType.STRING, null));
       }
 
-      connection.insert("Tags", tagInsertion);
+      tagInsertions.add(tagInsertion);
     }
 
+    connection.insertBatch("Tags", tagInsertions);
+
+    // tags are also looked up by key, so index them in TagsByKey as well
+    for (String key : tags.keySet()) {
+      List<DbDataContainer> keyInsertion = new ArrayList<>();
+      keyInsertion.add(new DbDataContainer("key", GroundType.STRING, key));
+      keyInsertion.add(new DbDataContainer("richversion_id", GroundType.STRING, id));
+
+      connection.insert("TagsByKey", keyInsertion);
+    }
+
+    List<List<DbDataContainer>> parameterInsertions = new ArrayList<>();
     for (String key : referenceParameters.keySet()) {
       List<DbDataContainer> parameterInsertion = new ArrayList<>();
       parameterInsertion.add(new DbDataContainer("richversion_id", GroundType.STRING, id));
       parameterInsertion.add(new DbDataContainer("key", GroundType.STRING, key));
       parameterInsertion.add(new DbDataContainer("value", GroundType.STRING, referenceParameters.get(key)));
 
-      connection.insert("RichVersionExternalParameters", parameterInsertion);
+      parameterInsertions.add(parameterInsertion);
     }
+
+    connection.insertBatch("RichVersionExternalParameters", parameterInsertions);
+  }
+
+  protected StructureVersion retrieveStructureVersion(GroundDBConnection connection, String structureVersionId) throws GroundException {
+    return this.structureVersionFactory.retrieveFromDatabase(connection, structureVersionId);
   }
 
   public RichVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
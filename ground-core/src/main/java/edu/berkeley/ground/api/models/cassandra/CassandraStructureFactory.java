@@ -57,6 +57,7 @@ public class CassandraStructureFactory extends StructureFactory {
       insertions.add(new DbDataContainer("item_id", GroundType.STRING, uniqueId));
 
       connection.insert("Structures", insertions);
+      connection.insert("StructuresByName", insertions);
 
       connection.commit();
       LOGGER.info("Created structure " + name + ".");
@@ -86,7 +87,7 @@ public class CassandraStructureFactory extends StructureFactory {
 
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("Structures", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.equalitySelect("StructuresByName", DBClient.SELECT_STAR, predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No Structure found with name " + name + ".");
       }
@@ -95,7 +96,7 @@ public class CassandraStructureFactory extends StructureFactory {
         throw new GroundException("No Structure found with name " + name + ".");
       }
 
-      String id = resultSet.getString(0);
+      String id = resultSet.getString("item_id");
 
       connection.commit();
       LOGGER.info("Retrieved structure " + name + ".");
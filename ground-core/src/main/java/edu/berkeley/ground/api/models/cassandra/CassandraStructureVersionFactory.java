@@ -21,6 +21,7 @@ import edu.berkeley.ground.api.versions.cassandra.CassandraVersionFactory;
 import edu.berkeley.ground.db.CassandraClient;
 import edu.berkeley.ground.db.CassandraClient.CassandraConnection;
 import edu.berkeley.ground.db.DBClient;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.QueryResults;
 import edu.berkeley.ground.exceptions.EmptyResultException;
@@ -60,15 +61,18 @@ public class CassandraStructureVersionFactory extends StructureVersionFactory {
 
     connection.insert("StructureVersions", insertions);
 
+    List<List<DbDataContainer>> itemInsertions = new ArrayList<>();
     for (String key : attributes.keySet()) {
-      List<DbDataContainer> itemInsertions = new ArrayList<>();
-      itemInsertions.add(new DbDataContainer("svid", GroundType.STRING, id));
-      itemInsertions.add(new DbDataContainer("key", GroundType.STRING, key));
-      itemInsertions.add(new DbDataContainer("type", GroundType.STRING, attributes.get(key).toString()));
+      List<DbDataContainer> itemInsertion = new ArrayList<>();
+      itemInsertion.add(new DbDataContainer("svid", GroundType.STRING, id));
+      itemInsertion.add(new DbDataContainer("key", GroundType.STRING, key));
+      itemInsertion.add(new DbDataContainer("type", GroundType.STRING, attributes.get(key).toString()));
 
-      connection.insert("StructureVersionItems", itemInsertions);
+      itemInsertions.add(itemInsertion);
     }
 
+    connection.insertBatch("StructureVersionItems", itemInsertions);
+
     this.structureFactory.update(connection, structureId, id, parentIds);
 
     connection.commit();
@@ -80,6 +84,24 @@ public class CassandraStructureVersionFactory extends StructureVersionFactory {
   public StructureVersion retrieveFromDatabase(String id) throws GroundException {
     CassandraConnection connection = this.dbClient.getConnection();
 
+    StructureVersion structureVersion = this.retrieveFromDatabase(connection, id);
+
+    connection.commit();
+    LOGGER.info("Retrieved structure version " + id + " in structure " + structureVersion.getStructureId() + ".");
+
+    return structureVersion;
+  }
+
+  /**
+   * Retrieve a StructureVersion using an existing connection.
+   *
+   * @param connectionPointer the connection to read with
+   * @param id                the id of the StructureVersion
+   * @return the StructureVersion
+   */
+  public StructureVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
+    CassandraConnection connection = (CassandraConnection) connectionPointer;
+
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.STRING, id));
 
@@ -110,9 +132,6 @@ public class CassandraStructureVersionFactory extends StructureVersionFactory {
 
     String structureId = resultSet.getString(1);
 
-    connection.commit();
-    LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
-
     return StructureVersionFactory.construct(id, structureId, attributes);
   }
 }
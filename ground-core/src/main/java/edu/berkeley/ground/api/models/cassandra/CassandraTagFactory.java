@@ -71,7 +71,7 @@ public class CassandraTagFactory extends TagFactory {
 
     QueryResults resultSet;
     try {
-      resultSet = connection.equalitySelect("Tags", projections, predicates);
+      resultSet = connection.equalitySelect("TagsByKey", projections, predicates);
     } catch (EmptyResultException eer) {
       // this means that there are no tags
       return result;
@@ -76,7 +76,7 @@ public class Neo4jEdgeFactory extends EdgeFactory {
 
       Record record;
       try {
-        record = connection.getVertex(predicates);
+        record = connection.getVertex("GroundEdge", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No Edge found with name " + name + ".");
       }
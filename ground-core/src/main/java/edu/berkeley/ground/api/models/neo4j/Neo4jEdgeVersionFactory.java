@@ -100,7 +100,7 @@ public class Neo4jEdgeVersionFactory extends EdgeVersionFactory {
 
       Record versionRecord;
       try {
-        versionRecord = connection.getVertex(predicates);
+        versionRecord = connection.getVertex("EdgeVersion", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No EdgeVersion found with id " + id + ".");
       }
@@ -77,7 +77,7 @@ public class Neo4jGraphFactory extends GraphFactory {
 
       Record record;
       try {
-        record = connection.getVertex(predicates);
+        record = connection.getVertex("Graph", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No Graph found with name " + name + ".");
       }
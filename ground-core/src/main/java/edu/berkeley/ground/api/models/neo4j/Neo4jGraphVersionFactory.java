@@ -28,6 +28,7 @@ import edu.berkeley.ground.util.IdGenerator;
 
 import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -107,7 +108,7 @@ public class Neo4jGraphVersionFactory extends GraphVersionFactory {
 
       Record versionRecord;
       try {
-        versionRecord = connection.getVertex(predicates);
+        versionRecord = connection.getVertex("GraphVersion", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No GraphVersion found with id " + id + ".");
       }
@@ -118,10 +119,10 @@ public class Neo4jGraphVersionFactory extends GraphVersionFactory {
       List<String> returnFields = new ArrayList<>();
       returnFields.add("id");
 
-      List<Record> edgeVersionVertices = connection.getAdjacentVerticesByEdgeLabel("GraphVersionEdge", id, returnFields);
+      StatementResult edgeVersionVertices = connection.getAdjacentVerticesByEdgeLabel("GraphVersionEdge", id, returnFields);
       List<String> edgeVersionIds = new ArrayList<>();
 
-      edgeVersionVertices.forEach(edgeVersionVertex -> edgeVersionIds.add(Neo4jClient.getStringFromValue((StringValue) edgeVersionVertex.get("id"))));
+      edgeVersionVertices.forEachRemaining(edgeVersionVertex -> edgeVersionIds.add(Neo4jClient.getStringFromValue((StringValue) edgeVersionVertex.get("id"))));
 
       connection.commit();
       LOGGER.info("Retrieved graph version " + id + " in graph " + graphId + ".");
@@ -20,6 +20,7 @@ import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.api.versions.neo4j.Neo4jItemFactory;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
+import edu.berkeley.ground.db.Neo4jBatch;
 import edu.berkeley.ground.db.Neo4jClient;
 import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
 import edu.berkeley.ground.exceptions.EmptyResultException;
@@ -104,4 +105,8 @@ public class Neo4jNodeFactory extends NodeFactory {
   public void update(GroundDBConnection connection, String itemId, String childId, List<String> parentIds) throws GroundException {
     this.itemFactory.update(connection, itemId, childId, parentIds);
   }
+
+  public void update(Neo4jConnection connection, Neo4jBatch batch, String itemId, List<String> childIds, List<String> parentIds) throws GroundException {
+    this.itemFactory.update(connection, batch, itemId, childIds, parentIds);
+  }
 }
@@ -14,12 +14,14 @@
 
 package edu.berkeley.ground.api.models.neo4j;
 
+import edu.berkeley.ground.api.models.ClosureBounds;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.NodeVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.db.DbDataContainer;
+import edu.berkeley.ground.db.Neo4jBatch;
 import edu.berkeley.ground.db.Neo4jClient;
 import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
 import edu.berkeley.ground.exceptions.EmptyResultException;
@@ -32,8 +34,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class Neo4jNodeVersionFactory extends NodeVersionFactory {
@@ -85,6 +89,58 @@ public class Neo4jNodeVersionFactory extends NodeVersionFactory {
     }
   }
 
+  /**
+   * Create all the versions in one transaction, sending the writes for each kind of vertex and
+   * edge as a single statement.
+   */
+  @Override
+  public List<NodeVersion> create(List<NodeVersion> nodeVersions, List<String> parentIds) throws GroundException {
+    Neo4jConnection connection = this.dbClient.getConnection();
+
+    try {
+      Neo4jBatch batch = new Neo4jBatch();
+      List<NodeVersion> result = new ArrayList<>();
+
+      // the ids of the new versions of each node
+      Map<String, List<String>> childIds = new LinkedHashMap<>();
+
+      for (NodeVersion nodeVersion : nodeVersions) {
+        String nodeId = nodeVersion.getNodeId();
+        String id = IdGenerator.generateId(nodeId);
+
+        Map<String, Tag> tags = nodeVersion.getTags().values().stream()
+            .collect(Collectors.toMap(Tag::getKey, tag -> new Tag(id, tag.getKey(), tag.getValue(), tag.getValueType())));
+
+        List<DbDataContainer> insertions = new ArrayList<>();
+        insertions.add(new DbDataContainer("id", GroundType.STRING, id));
+        insertions.add(new DbDataContainer("node_id", GroundType.STRING, nodeId));
+
+        batch.addVertex("NodeVersion", insertions);
+        this.richVersionFactory.insertIntoBatch(connection, batch, id, tags, nodeVersion.getStructureVersionId(),
+            nodeVersion.getReference(), nodeVersion.getParameters());
+
+        childIds.computeIfAbsent(nodeId, key -> new ArrayList<>()).add(id);
+        result.add(NodeVersionFactory.construct(id, tags, nodeVersion.getStructureVersionId(), nodeVersion.getReference(),
+            nodeVersion.getParameters(), nodeId));
+      }
+
+      for (Map.Entry<String, List<String>> node : childIds.entrySet()) {
+        this.nodeFactory.update(connection, batch, node.getKey(), node.getValue(), parentIds);
+      }
+
+      connection.execute(batch);
+      connection.commit();
+
+      LOGGER.info("Created " + result.size() + " node versions.");
+
+      return result;
+    } catch (GroundException e) {
+      connection.abort();
+
+      throw e;
+    }
+  }
+
   public NodeVersion retrieveFromDatabase(String id) throws GroundException {
     Neo4jConnection connection = this.dbClient.getConnection();
 
@@ -96,7 +152,7 @@ public class Neo4jNodeVersionFactory extends NodeVersionFactory {
 
       Record record;
       try {
-        record = connection.getVertex(predicates);
+        record = connection.getVertex("NodeVersion", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No NodeVersion found with id " + id + ".");
       }
@@ -136,4 +192,33 @@ public class Neo4jNodeVersionFactory extends NodeVersionFactory {
     connection.commit();
     return result;
   }
+
+  @Override
+  public void getTransitiveClosure(String nodeVersionId, ClosureBounds bounds, Consumer<String> consumer) throws GroundException {
+    Neo4jConnection connection = this.dbClient.getConnection();
+    try {
+      connection.transitiveClosure(nodeVersionId, bounds, consumer);
+
+      connection.commit();
+    } catch (GroundException | RuntimeException e) {
+      // the consumer fails if, e.g., the client it is streaming to goes away
+      connection.abort();
+
+      throw e;
+    }
+  }
+
+  @Override
+  public void getAdjacentNodes(String nodeVersionId, String edgeNameRegex, Consumer<String> consumer) throws GroundException {
+    Neo4jConnection connection = this.dbClient.getConnection();
+    try {
+      connection.adjacentNodes(nodeVersionId, edgeNameRegex, consumer);
+
+      connection.commit();
+    } catch (GroundException | RuntimeException e) {
+      connection.abort();
+
+      throw e;
+    }
+  }
 }
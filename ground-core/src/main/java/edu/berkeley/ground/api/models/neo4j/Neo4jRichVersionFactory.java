@@ -21,6 +21,7 @@ import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
+import edu.berkeley.ground.db.Neo4jBatch;
 import edu.berkeley.ground.db.Neo4jClient;
 import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
 import edu.berkeley.ground.exceptions.EmptyResultException;
@@ -29,6 +30,7 @@ import edu.berkeley.ground.exceptions.GroundException;
 import org.neo4j.driver.internal.value.NullValue;
 import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
 
 import java.util.*;
 
@@ -50,9 +52,26 @@ public class Neo4jRichVersionFactory extends RichVersionFactory {
   ) throws GroundException {
     Neo4jConnection connection = (Neo4jConnection) connectionPointer;
 
+    Neo4jBatch batch = new Neo4jBatch();
+    this.insertIntoBatch(connection, batch, id, tags, structureVersionId, reference, referenceParameters);
+
+    connection.execute(batch);
+  }
+
+  /**
+   * Validate a RichVersion and add its parameters, properties and tags to batch. The vertex with
+   * the given id has to be created before the batch runs, or earlier in the same batch.
+   */
+  public void insertIntoBatch(Neo4jConnection connection,
+                              Neo4jBatch batch,
+                              String id,
+                              Map<String, Tag> tags,
+                              String structureVersionId,
+                              String reference,
+                              Map<String, String> referenceParameters
+  ) throws GroundException {
     if (structureVersionId != null) {
-      StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId);
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+      this.checkStructureTags(connection, structureVersionId, tags);
     }
 
     for (String key : referenceParameters.keySet()) {
@@ -63,17 +82,15 @@ public class Neo4jRichVersionFactory extends RichVersionFactory {
       insertions.add(new DbDataContainer("pkey", GroundType.STRING, key));
       insertions.add(new DbDataContainer("value", GroundType.STRING, value));
 
-      connection.addVertexAndEdge("RichVersionExternalParameter", insertions, "RichVersionExternalParameterConnection", id, new ArrayList<>());
-
-      insertions.clear();
+      batch.addVertexAndEdge("RichVersionExternalParameter", insertions, "RichVersionExternalParameterConnection", id, new ArrayList<>());
     }
 
     if (structureVersionId != null) {
-      connection.setProperty(id, "structure_id", structureVersionId, true);
+      batch.setProperty(id, "structure_id", structureVersionId);
     }
 
     if (reference != null) {
-      connection.setProperty(id, "reference", reference, true);
+      batch.setProperty(id, "reference", reference);
     }
 
     for (String key : tags.keySet()) {
@@ -91,11 +108,14 @@ public class Neo4jRichVersionFactory extends RichVersionFactory {
         tagInsertion.add(new DbDataContainer("type", GroundType.STRING, null));
       }
 
-      connection.addVertexAndEdge("Tag", tagInsertion, "TagConnection", id, new ArrayList<>());
-      tagInsertion.clear();
+      batch.addVertexAndEdge("Tag", tagInsertion, "TagConnection", id, new ArrayList<>());
     }
   }
 
+  protected StructureVersion retrieveStructureVersion(GroundDBConnection connection, String structureVersionId) throws GroundException {
+    return this.structureVersionFactory.retrieveFromDatabase(connection, structureVersionId);
+  }
+
   public RichVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
     Neo4jConnection connection = (Neo4jConnection) connectionPointer;
 
@@ -113,13 +133,12 @@ public class Neo4jRichVersionFactory extends RichVersionFactory {
     returnFields.add("pkey");
     returnFields.add("value");
 
-    List<Record> parameterVertices = connection.getAdjacentVerticesByEdgeLabel("RichVersionExternalParameterConnection", id, returnFields);
+    StatementResult parameterVertices = connection.getAdjacentVerticesByEdgeLabel("RichVersionExternalParameterConnection", id, returnFields);
     Map<String, String> referenceParameters = new HashMap<>();
 
-    if (!parameterVertices.isEmpty()) {
-      for (Record parameter : parameterVertices) {
-        referenceParameters.put(Neo4jClient.getStringFromValue((StringValue) parameter.get("pkey")), Neo4jClient.getStringFromValue((StringValue) parameter.get("value")));
-      }
+    while (parameterVertices.hasNext()) {
+      Record parameter = parameterVertices.next();
+      referenceParameters.put(Neo4jClient.getStringFromValue((StringValue) parameter.get("pkey")), Neo4jClient.getStringFromValue((StringValue) parameter.get("value")));
     }
 
     Map<String, Tag> tags = tagFactory.retrieveFromDatabaseById(connectionPointer, id);
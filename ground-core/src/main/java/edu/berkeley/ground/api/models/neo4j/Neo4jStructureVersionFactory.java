@@ -17,6 +17,7 @@ package edu.berkeley.ground.api.models.neo4j;
 import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.StructureVersionFactory;
 import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.Neo4jClient;
 import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
@@ -26,6 +27,7 @@ import edu.berkeley.ground.util.IdGenerator;
 
 import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -78,39 +80,54 @@ public class Neo4jStructureVersionFactory extends StructureVersionFactory {
     Neo4jConnection connection = this.dbClient.getConnection();
 
     try {
-      List<DbDataContainer> predicates = new ArrayList<>();
-      predicates.add(new DbDataContainer("id", GroundType.STRING, id));
+      StructureVersion structureVersion = this.retrieveFromDatabase(connection, id);
 
-      String structureId;
+      connection.commit();
+      LOGGER.info("Retrieved structure version " + id + " in structure " + structureVersion.getStructureId() + ".");
 
-      try {
-        structureId = Neo4jClient.getStringFromValue((StringValue) connection
-            .getVertex(predicates).get("v").asNode().get("structure_id"));
-      } catch (EmptyResultException eer) {
-        throw new GroundException("No StructureVersion found with id " + id + ".");
-      }
-      List<String> returnFields = new ArrayList<>();
-      returnFields.add("svid");
-      returnFields.add("skey");
-      returnFields.add("stype");
+      return structureVersion;
+    } catch (GroundException ge) {
+      connection.abort();
 
-      List<Record> edges = connection.getAdjacentVerticesByEdgeLabel("StructureVersionItemConnection", id, returnFields);
-      Map<String, GroundType> attributes = new HashMap<>();
+      throw ge;
+    }
+  }
 
+  /**
+   * Retrieve a StructureVersion within an open transaction.
+   *
+   * @param connectionPointer the connection to read with
+   * @param id                the id of the StructureVersion
+   * @return the StructureVersion
+   */
+  public StructureVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
+    Neo4jConnection connection = (Neo4jConnection) connectionPointer;
 
-      for (Record record : edges) {
-        attributes.put(Neo4jClient.getStringFromValue((StringValue) record.get("skey")), GroundType.fromString(Neo4jClient.getStringFromValue((StringValue) record.get("stype"))));
-      }
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("id", GroundType.STRING, id));
 
-      connection.commit();
-      LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
+    String structureId;
 
-      return StructureVersionFactory.construct(id, structureId, attributes);
-    } catch (GroundException ge) {
-      connection.abort();
+    try {
+      structureId = Neo4jClient.getStringFromValue((StringValue) connection
+          .getVertex("StructureVersion", predicates).get("v").asNode().get("structure_id"));
+    } catch (EmptyResultException eer) {
+      throw new GroundException("No StructureVersion found with id " + id + ".");
+    }
+    List<String> returnFields = new ArrayList<>();
+    returnFields.add("svid");
+    returnFields.add("skey");
+    returnFields.add("stype");
 
-      throw ge;
+    StatementResult edges = connection.getAdjacentVerticesByEdgeLabel("StructureVersionItemConnection", id, returnFields);
+    Map<String, GroundType> attributes = new HashMap<>();
+
+    while (edges.hasNext()) {
+      Record record = edges.next();
+      attributes.put(Neo4jClient.getStringFromValue((StringValue) record.get("skey")), GroundType.fromString(Neo4jClient.getStringFromValue((StringValue) record.get("stype"))));
     }
+
+    return StructureVersionFactory.construct(id, structureId, attributes);
   }
 
 }
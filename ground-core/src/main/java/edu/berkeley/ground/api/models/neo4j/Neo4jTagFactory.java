@@ -26,6 +26,7 @@ import edu.berkeley.ground.exceptions.GroundException;
 import org.neo4j.driver.internal.value.NullValue;
 import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.Record;
+import org.neo4j.driver.v1.StatementResult;
 
 import java.util.*;
 
@@ -38,11 +39,12 @@ public class Neo4jTagFactory extends TagFactory {
     returnFields.add("value");
     returnFields.add("type");
 
-    List<Record> tagsRecords = connection.getAdjacentVerticesByEdgeLabel("TagConnection", id, returnFields);
+    StatementResult tagsRecords = connection.getAdjacentVerticesByEdgeLabel("TagConnection", id, returnFields);
 
     Map<String, Tag> tags = new HashMap<>();
 
-    for (Record record : tagsRecords) {
+    while (tagsRecords.hasNext()) {
+      Record record = tagsRecords.next();
       String key = Neo4jClient.getStringFromValue((StringValue) record.get("tkey"));
 
       Object value;
@@ -72,6 +74,6 @@ public class Neo4jTagFactory extends TagFactory {
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("tkey", GroundType.STRING, tag));
 
-    return connection.getVerticesByAttributes(predicates);
+    return connection.getVerticesByAttributes("Tag", predicates);
   }
 }
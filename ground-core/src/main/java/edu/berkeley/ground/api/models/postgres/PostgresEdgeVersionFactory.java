@@ -16,7 +16,6 @@ package edu.berkeley.ground.api.models.postgres;
 
 import edu.berkeley.ground.api.models.*;
 import edu.berkeley.ground.api.versions.GroundType;
-import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -88,17 +87,14 @@ public class PostgresEdgeVersionFactory extends EdgeVersionFactory {
     PostgresConnection connection = this.dbClient.getConnection();
 
     try {
-      RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
-
-      List<DbDataContainer> predicates = new ArrayList<>();
-      predicates.add(new DbDataContainer("id", GroundType.STRING, id));
-
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("EdgeVersions", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.richVersionSelect("EdgeVersions", id);
       } catch (EmptyResultException eer) {
         throw new GroundException("No EdgeVersion found with id " + id + ".");
       }
+
+      RichVersion version = this.richVersionFactory.retrieveFromResults(id, resultSet);
       String edgeId = resultSet.getString(2);
       String fromId = resultSet.getString(3);
       String toId = resultSet.getString(4);
@@ -19,7 +19,6 @@ import edu.berkeley.ground.api.models.GraphVersionFactory;
 import edu.berkeley.ground.api.models.RichVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.GroundType;
-import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -32,6 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -57,6 +57,33 @@ public class PostgresGraphVersionFactory extends GraphVersionFactory {
                              List<String> edgeVersionIds,
                              List<String> parentIds) throws GroundException {
 
+    return this.create(tags, structureVersionId, reference, referenceParameters, graphId, edgeVersionIds, parentIds, false);
+  }
+
+  /**
+   * Create a GraphVersion, streaming its edges into GraphVersionEdges with COPY.
+   */
+  @Override
+  public GraphVersion createBulk(Map<String, Tag> tags,
+                                 String structureVersionId,
+                                 String reference,
+                                 Map<String, String> referenceParameters,
+                                 String graphId,
+                                 List<String> edgeVersionIds,
+                                 List<String> parentIds) throws GroundException {
+
+    return this.create(tags, structureVersionId, reference, referenceParameters, graphId, edgeVersionIds, parentIds, true);
+  }
+
+  private GraphVersion create(Map<String, Tag> tags,
+                              String structureVersionId,
+                              String reference,
+                              Map<String, String> referenceParameters,
+                              String graphId,
+                              List<String> edgeVersionIds,
+                              List<String> parentIds,
+                              boolean bulk) throws GroundException {
+
     PostgresConnection connection = this.dbClient.getConnection();
 
     try {
@@ -72,12 +99,21 @@ public class PostgresGraphVersionFactory extends GraphVersionFactory {
 
       connection.insert("GraphVersions", insertions);
 
-      for (String edgeVersionId : edgeVersionIds) {
-        List<DbDataContainer> edgeInsertion = new ArrayList<>();
-        edgeInsertion.add(new DbDataContainer("gvid", GroundType.STRING, id));
-        edgeInsertion.add(new DbDataContainer("evid", GroundType.STRING, edgeVersionId));
+      if (bulk) {
+        Iterable<List<String>> edgeRows = () -> edgeVersionIds.stream().map(edgeVersionId -> Arrays.asList(id, edgeVersionId)).iterator();
+
+        connection.copyIn("GraphVersionEdges", Arrays.asList("gvid", "evid"), edgeRows);
+      } else {
+        List<List<DbDataContainer>> edgeInsertions = new ArrayList<>();
+        for (String edgeVersionId : edgeVersionIds) {
+          List<DbDataContainer> edgeInsertion = new ArrayList<>();
+          edgeInsertion.add(new DbDataContainer("gvid", GroundType.STRING, id));
+          edgeInsertion.add(new DbDataContainer("evid", GroundType.STRING, edgeVersionId));
+
+          edgeInsertions.add(edgeInsertion);
+        }
 
-        connection.insert("GraphVersionEdges", edgeInsertion);
+        connection.insertBatch("GraphVersionEdges", edgeInsertions);
       }
 
       this.graphFactory.update(connection, graphId, id, parentIds);
@@ -97,31 +133,16 @@ public class PostgresGraphVersionFactory extends GraphVersionFactory {
     PostgresConnection connection = this.dbClient.getConnection();
 
     try {
-      RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
-
-      List<DbDataContainer> predicates = new ArrayList<>();
-      predicates.add(new DbDataContainer("id", GroundType.STRING, id));
-
-      List<DbDataContainer> edgePredicate = new ArrayList<>();
-      edgePredicate.add(new DbDataContainer("gvid", GroundType.STRING, id));
-
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("GraphVersions", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.richVersionSelect("GraphVersions", id, "GraphVersionEdges", "gvid", "evid");
       } catch (EmptyResultException eer) {
         throw new GroundException("No GraphVersion found with id " + id + ".");
       }
 
+      RichVersion version = this.richVersionFactory.retrieveFromResults(id, resultSet);
       String graphId = resultSet.getString(2);
-
-      QueryResults edgeSet;
-      List<String> edgeVersionIds = new ArrayList<>();
-      try {
-        edgeSet = connection.equalitySelect("GraphVersionEdges", DBClient.SELECT_STAR, edgePredicate);
-        edgeVersionIds = edgeSet.getStringList(2);
-      } catch (EmptyResultException eer) {
-        // do nothing; this just means that there are no edges in the GraphVersion
-      }
+      List<String> edgeVersionIds = this.richVersionFactory.retrieveListFromResults(resultSet);
 
       connection.commit();
       LOGGER.info("Retrieved graph version " + id + " in graph " + graphId + ".");
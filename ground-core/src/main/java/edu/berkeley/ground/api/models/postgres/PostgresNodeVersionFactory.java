@@ -16,7 +16,6 @@ package edu.berkeley.ground.api.models.postgres;
 
 import edu.berkeley.ground.api.models.*;
 import edu.berkeley.ground.api.versions.GroundType;
-import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -31,6 +30,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class PostgresNodeVersionFactory extends NodeVersionFactory {
@@ -87,17 +87,14 @@ public class PostgresNodeVersionFactory extends NodeVersionFactory {
     PostgresConnection connection = this.dbClient.getConnection();
 
     try {
-      RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
-
-      List<DbDataContainer> predicates = new ArrayList<>();
-      predicates.add(new DbDataContainer("id", GroundType.STRING, id));
-
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("NodeVersions", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.richVersionSelect("NodeVersions", id);
       } catch (EmptyResultException eer) {
         throw new GroundException("No NodeVersion found with id " + id + ".");
       }
+
+      RichVersion version = this.richVersionFactory.retrieveFromResults(id, resultSet);
       String nodeId = resultSet.getString(2);
 
       connection.commit();
@@ -119,6 +116,20 @@ public class PostgresNodeVersionFactory extends NodeVersionFactory {
     return result;
   }
 
+  @Override
+  public void getTransitiveClosure(String nodeVersionId, ClosureBounds bounds, Consumer<String> consumer) throws GroundException {
+    PostgresConnection connection = this.dbClient.getConnection();
+    try {
+      connection.transitiveClosure(nodeVersionId, bounds, consumer);
+
+      connection.commit();
+    } catch (GroundException | RuntimeException e) {
+      connection.abort();
+
+      throw e;
+    }
+  }
+
   public List<String> getAdjacentNodes(String nodeVersionId, String edgeNameRegex) throws GroundException {
     PostgresConnection connection = this.dbClient.getConnection();
     List<String> result = connection.adjacentNodes(nodeVersionId, edgeNameRegex);
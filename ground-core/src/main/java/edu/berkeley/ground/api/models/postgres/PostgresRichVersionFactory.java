@@ -14,6 +14,9 @@
 
 package edu.berkeley.ground.api.models.postgres;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import edu.berkeley.ground.api.models.RichVersion;
 import edu.berkeley.ground.api.models.RichVersionFactory;
 import edu.berkeley.ground.api.models.StructureVersion;
@@ -28,9 +31,15 @@ import edu.berkeley.ground.db.QueryResults;
 import edu.berkeley.ground.exceptions.EmptyResultException;
 import edu.berkeley.ground.exceptions.GroundException;
 
+import java.io.IOException;
 import java.util.*;
 
 public class PostgresRichVersionFactory extends RichVersionFactory {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final TypeReference<List<List<String>>> TAGS_TYPE = new TypeReference<List<List<String>>>() {};
+  private static final TypeReference<Map<String, String>> PARAMETERS_TYPE = new TypeReference<Map<String, String>>() {};
+  private static final TypeReference<List<String>> LIST_TYPE = new TypeReference<List<String>>() {};
+
   private PostgresVersionFactory versionFactory;
   private PostgresStructureVersionFactory structureVersionFactory;
   private PostgresTagFactory tagFactory;
@@ -55,8 +64,7 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
     this.versionFactory.insertIntoDatabase(connection, id);
 
     if (structureVersionId != null) {
-      StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId);
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+      this.checkStructureTags(connection, structureVersionId, tags);
     }
 
     List<DbDataContainer> insertions = new ArrayList<>();
@@ -66,6 +74,7 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
 
     connection.insert("RichVersions", insertions);
 
+    List<List<DbDataContainer>> tagInsertions = new ArrayList<>();
     for (String key : tags.keySet()) {
       Tag tag = tags.get(key);
 
@@ -81,9 +90,12 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
         tagInsertion.add(new DbDataContainer("type", GroundType.STRING, null));
       }
 
-      connection.insert("Tags", tagInsertion);
+      tagInsertions.add(tagInsertion);
     }
 
+    connection.insertBatch("Tags", tagInsertions);
+
+    List<List<DbDataContainer>> parameterInsertions = new ArrayList<>();
     for (String key : referenceParameters.keySet()) {
       List<DbDataContainer> parameterInsertion = new ArrayList<>();
 
@@ -91,8 +103,14 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
       parameterInsertion.add(new DbDataContainer("key", GroundType.STRING, key));
       parameterInsertion.add(new DbDataContainer("value", GroundType.STRING, referenceParameters.get(key)));
 
-      connection.insert("RichVersionExternalParameters", parameterInsertion);
+      parameterInsertions.add(parameterInsertion);
     }
+
+    connection.insertBatch("RichVersionExternalParameters", parameterInsertions);
+  }
+
+  protected StructureVersion retrieveStructureVersion(GroundDBConnection connection, String structureVersionId) throws GroundException {
+    return this.structureVersionFactory.retrieveFromDatabase(connection, structureVersionId);
   }
 
   public RichVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
@@ -129,4 +147,64 @@ public class PostgresRichVersionFactory extends RichVersionFactory {
 
     return RichVersionFactory.construct(id, tags, structureVersionId, reference, referenceParameters);
   }
+
+  /**
+   * Build a RichVersion from a row returned by PostgresConnection.richVersionSelect.
+   *
+   * @param id the id of the version
+   * @param resultSet the results, positioned on the version's row
+   * @return the version's RichVersion fields
+   */
+  public RichVersion retrieveFromResults(String id, QueryResults resultSet) throws GroundException {
+    Map<String, Tag> tags = new HashMap<>();
+    List<List<String>> tagRows = readJson(resultSet.getString("tags"), TAGS_TYPE);
+
+    if (tagRows != null) {
+      for (List<String> tagRow : tagRows) {
+        String key = tagRow.get(0);
+
+        // these methods will return null if the input is null, so there's no need to check
+        GroundType type = GroundType.fromString(tagRow.get(2));
+        Object value = GroundType.stringToType(tagRow.get(1), type);
+
+        tags.put(key, new Tag(id, key, value, type));
+      }
+    }
+
+    Map<String, String> referenceParameters = readJson(resultSet.getString("parameters"), PARAMETERS_TYPE);
+    if (referenceParameters == null) {
+      referenceParameters = new HashMap<>();
+    }
+
+    String structureVersionId = resultSet.getString("structure_id");
+    String reference = resultSet.getString("reference");
+
+    return RichVersionFactory.construct(id, tags, structureVersionId, reference, referenceParameters);
+  }
+
+  /**
+   * Read the json array in the "list" column of a row returned by
+   * PostgresConnection.richVersionSelect.
+   *
+   * @param resultSet the results, positioned on the version's row
+   * @return the values in the list; empty if there are none
+   */
+  public List<String> retrieveListFromResults(QueryResults resultSet) throws GroundException {
+    List<String> list = readJson(resultSet.getString("list"), LIST_TYPE);
+
+    return list == null ? new ArrayList<>() : list;
+  }
+
+  private static <T> T readJson(String json, TypeReference<T> type) throws GroundException {
+    // the aggregates are null when there are no rows to aggregate
+    if (json == null) {
+      return null;
+    }
+
+    try {
+      return MAPPER.readValue(json, type);
+    } catch (IOException e) {
+      throw new GroundException(e);
+    }
+  }
 }
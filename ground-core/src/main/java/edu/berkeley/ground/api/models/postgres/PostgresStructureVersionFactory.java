@@ -19,6 +19,7 @@ import edu.berkeley.ground.api.models.StructureVersionFactory;
 import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.api.versions.postgres.PostgresVersionFactory;
 import edu.berkeley.ground.db.DBClient;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -60,15 +61,18 @@ public class PostgresStructureVersionFactory extends StructureVersionFactory {
 
     connection.insert("StructureVersions", insertions);
 
+    List<List<DbDataContainer>> itemInsertions = new ArrayList<>();
     for (String key : attributes.keySet()) {
-      List<DbDataContainer> itemInsertions = new ArrayList<>();
-      itemInsertions.add(new DbDataContainer("svid", GroundType.STRING, id));
-      itemInsertions.add(new DbDataContainer("key", GroundType.STRING, key));
-      itemInsertions.add(new DbDataContainer("type", GroundType.STRING, attributes.get(key).toString()));
+      List<DbDataContainer> itemInsertion = new ArrayList<>();
+      itemInsertion.add(new DbDataContainer("svid", GroundType.STRING, id));
+      itemInsertion.add(new DbDataContainer("key", GroundType.STRING, key));
+      itemInsertion.add(new DbDataContainer("type", GroundType.STRING, attributes.get(key).toString()));
 
-      connection.insert("StructureVersionItems", itemInsertions);
+      itemInsertions.add(itemInsertion);
     }
 
+    connection.insertBatch("StructureVersionItems", itemInsertions);
+
     this.structureFactory.update(connection, structureId, id, parentIds);
 
     connection.commit();
@@ -80,6 +84,30 @@ public class PostgresStructureVersionFactory extends StructureVersionFactory {
   public StructureVersion retrieveFromDatabase(String id) throws GroundException {
     PostgresConnection connection = this.dbClient.getConnection();
 
+    try {
+      StructureVersion structureVersion = this.retrieveFromDatabase(connection, id);
+
+      connection.commit();
+      LOGGER.info("Retrieved structure version " + id + " in structure " + structureVersion.getStructureId() + ".");
+
+      return structureVersion;
+    } catch (GroundException e) {
+      connection.abort();
+
+      throw e;
+    }
+  }
+
+  /**
+   * Retrieve a StructureVersion within an open transaction.
+   *
+   * @param connectionPointer the connection to read with
+   * @param id                the id of the StructureVersion
+   * @return the StructureVersion
+   */
+  public StructureVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
+    PostgresConnection connection = (PostgresConnection) connectionPointer;
+
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.STRING, id));
     QueryResults resultSet;
@@ -107,9 +135,6 @@ public class PostgresStructureVersionFactory extends StructureVersionFactory {
 
     String structureId = resultSet.getString(2);
 
-    connection.commit();
-    LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
-
     return StructureVersionFactory.construct(id, structureId, attributes);
   }
 }
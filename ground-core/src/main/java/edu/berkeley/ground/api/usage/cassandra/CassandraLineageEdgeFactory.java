@@ -57,6 +57,7 @@ public class CassandraLineageEdgeFactory extends LineageEdgeFactory {
       insertions.add(new DbDataContainer("item_id", GroundType.STRING, uniqueId));
 
       connection.insert("LineageEdges", insertions);
+      connection.insert("LineageEdgesByName", insertions);
 
       connection.commit();
       LOGGER.info("Created lineage edge " + name + ".");
@@ -78,7 +79,7 @@ public class CassandraLineageEdgeFactory extends LineageEdgeFactory {
 
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("LineageEdges", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.equalitySelect("LineageEdgesByName", DBClient.SELECT_STAR, predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No LineageEdge found with name " + name + ".");
       }
@@ -78,7 +78,7 @@ public class Neo4jLineageEdgeFactory extends LineageEdgeFactory {
 
       Record record;
       try {
-        record = connection.getVertex(predicates);
+        record = connection.getVertex("LineageEdges", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No LineageEdge found with name " + name + ".");
       }
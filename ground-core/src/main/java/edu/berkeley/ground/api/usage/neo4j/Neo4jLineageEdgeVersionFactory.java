@@ -103,7 +103,7 @@ public class Neo4jLineageEdgeVersionFactory extends LineageEdgeVersionFactory {
 
       Record versionRecord;
       try {
-        versionRecord = connection.getVertex(predicates);
+        versionRecord = connection.getVertex("LineageEdgeVersions", predicates);
       } catch (EmptyResultException eer) {
         throw new GroundException("No LineageEdgeVersion found with id " + id + ".");
       }
@@ -20,7 +20,6 @@ import edu.berkeley.ground.api.models.postgres.PostgresRichVersionFactory;
 import edu.berkeley.ground.api.usage.LineageEdgeVersion;
 import edu.berkeley.ground.api.usage.LineageEdgeVersionFactory;
 import edu.berkeley.ground.api.versions.GroundType;
-import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -94,18 +93,15 @@ public class PostgresLineageEdgeVersionFactory extends LineageEdgeVersionFactory
     PostgresConnection connection = this.dbClient.getConnection();
 
     try {
-      RichVersion version = this.richVersionFactory.retrieveFromDatabase(connection, id);
-
-      List<DbDataContainer> predicates = new ArrayList<>();
-      predicates.add(new DbDataContainer("id", GroundType.STRING, id));
-
       QueryResults resultSet;
       try {
-        resultSet = connection.equalitySelect("LineageEdgeVersions", DBClient.SELECT_STAR, predicates);
+        resultSet = connection.richVersionSelect("LineageEdgeVersions", id);
       } catch (EmptyResultException eer) {
         throw new GroundException("No LineageEdgeVersion found with id " + id + ".");
       }
 
+      RichVersion version = this.richVersionFactory.retrieveFromResults(id, resultSet);
+
       String lineageEdgeId = resultSet.getString(2);
       String fromId = resultSet.getString(3);
       String toId = resultSet.getString(4);
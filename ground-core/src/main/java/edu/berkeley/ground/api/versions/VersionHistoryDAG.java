@@ -85,18 +85,14 @@ public class VersionHistoryDAG<T extends Version> {
    * @return the list of the IDs of the leaves of this DAG
    */
   public List<String> getLeaves() {
-    List<String> leaves = new ArrayList<>();
+    Set<String> leaves = new HashSet<>();
     for (List<String> values : parentChildMap.values()) {
       leaves.addAll(values);
     }
 
     leaves.removeAll(this.parentChildMap.keySet());
 
-    Set<String> leafSet = new HashSet<>(leaves);
-    List<String> result = new ArrayList<>();
-    result.addAll(leafSet);
-
-    return result;
+    return new ArrayList<>(leaves);
   }
 
   private void addToParentChildMap(String parent, String child) {
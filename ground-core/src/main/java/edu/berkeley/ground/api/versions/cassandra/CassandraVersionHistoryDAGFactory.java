@@ -53,7 +53,13 @@ public class CassandraVersionHistoryDAGFactory extends VersionHistoryDAGFactory
     List<VersionSuccessor<T>> edges = new ArrayList<>();
 
     while (resultSet.next()) {
-      edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, resultSet.getString(1)));
+      // the successor's endpoints are stored with the DAG so that the whole history is one
+      // partition read; rows written before that still need a lookup
+      if (resultSet.getString("vfrom") == null) {
+        edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, resultSet.getString("successor_id")));
+      } else {
+        edges.add(this.versionSuccessorFactory.constructFromResults(resultSet));
+      }
     }
 
     return VersionHistoryDAGFactory.construct(itemId, edges);
@@ -67,6 +73,8 @@ public class CassandraVersionHistoryDAGFactory extends VersionHistoryDAGFactory
     List<DbDataContainer> insertions = new ArrayList<>();
     insertions.add(new DbDataContainer("item_id", GroundType.STRING, itemId));
     insertions.add(new DbDataContainer("successor_id", GroundType.STRING, successor.getId()));
+    insertions.add(new DbDataContainer("vfrom", GroundType.STRING, parentId));
+    insertions.add(new DbDataContainer("vto", GroundType.STRING, childId));
 
     connection.insert("VersionHistoryDAGs", insertions);
 
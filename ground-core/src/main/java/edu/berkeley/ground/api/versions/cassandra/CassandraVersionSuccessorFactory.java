@@ -96,4 +96,11 @@ public class CassandraVersionSuccessorFactory extends VersionSuccessorFactory {
 
     return VersionSuccessorFactory.construct(dbId, fromId, toId);
   }
+
+  /**
+   * Build a VersionSuccessor from a row with successor_id, vfrom and vto columns.
+   */
+  protected <T extends Version> VersionSuccessor<T> constructFromResults(QueryResults resultSet) throws GroundException {
+    return VersionSuccessorFactory.construct(resultSet.getString("successor_id"), resultSet.getString("vfrom"), resultSet.getString("vto"));
+  }
 }
@@ -17,12 +17,19 @@ package edu.berkeley.ground.api.versions.neo4j;
 import edu.berkeley.ground.api.versions.ItemFactory;
 import edu.berkeley.ground.api.versions.VersionHistoryDAG;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
+import edu.berkeley.ground.db.Neo4jBatch;
+import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 
+import org.neo4j.driver.v1.StatementResult;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Neo4jItemFactory extends ItemFactory {
+  private static final List<String> LEAF_FIELDS = Collections.singletonList("id");
+
   private Neo4jVersionHistoryDAGFactory versionHistoryDAGFactory;
 
   public Neo4jItemFactory(Neo4jVersionHistoryDAGFactory versionHistoryDAGFactory) {
@@ -39,9 +46,55 @@ public class Neo4jItemFactory extends ItemFactory {
       parentIds.add(itemId);
     }
 
+    Neo4jConnection connection = (Neo4jConnection) connectionPointer;
+    VersionHistoryDAG dag = this.retrieveDag(connection, itemId, parentIds);
+
+    for (String leaf : this.getUntrackedLeaves(connection, itemId, dag, parentIds)) {
+      connection.addEdge("Leaf", itemId, leaf, new ArrayList<>());
+    }
+
+    for (String parentId : parentIds) {
+      this.versionHistoryDAGFactory.addEdge(connection, dag, parentId, childId, itemId);
+    }
+
+    this.updateLeaves(connection, itemId, childId, parentIds);
+  }
+
+  /**
+   * Like update, but for several new versions of the same item with the same parents, and with
+   * the writes collected in batch. The item's version history is only read once.
+   */
+  public void update(Neo4jConnection connection, Neo4jBatch batch, String itemId, List<String> childIds, List<String> parentIds) throws GroundException {
+    if (parentIds.isEmpty()) {
+      parentIds = Collections.singletonList(itemId);
+    }
+
+    VersionHistoryDAG dag = this.retrieveDag(connection, itemId, parentIds);
+
+    for (String leaf : this.getUntrackedLeaves(connection, itemId, dag, parentIds)) {
+      batch.addEdge("Leaf", itemId, leaf, new ArrayList<>());
+    }
+
+    for (String parentId : parentIds) {
+      batch.deleteEdge("Leaf", itemId, parentId);
+    }
+
+    for (String childId : childIds) {
+      for (String parentId : parentIds) {
+        this.versionHistoryDAGFactory.addEdge(batch, dag, parentId, childId);
+      }
+
+      batch.addEdge("Leaf", itemId, childId, new ArrayList<>());
+    }
+  }
+
+  /**
+   * Retrieve the version history of an item, and check that each of parentIds is in it.
+   */
+  private VersionHistoryDAG retrieveDag(GroundDBConnection connection, String itemId, List<String> parentIds) throws GroundException {
     VersionHistoryDAG dag;
     try {
-      dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connectionPointer, itemId);
+      dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connection, itemId);
     } catch (GroundException e) {
       if (!e.getMessage().contains("No results found for query")) {
         throw e;
@@ -56,12 +109,55 @@ public class Neo4jItemFactory extends ItemFactory {
 
         throw new GroundException(errorString);
       }
+    }
 
-      this.versionHistoryDAGFactory.addEdge(connectionPointer, dag, parentId, childId, itemId);
+    return dag;
+  }
+
+  /**
+   * An item whose versions were all created before leaves were tracked has no Leaf edges, so
+   * before it is updated its leaves, other than the versions being extended, are copied from its
+   * version history; otherwise the leaves of its other branches would be lost. Returns nothing if
+   * the item's leaves are already tracked. dag must not contain the new versions yet.
+   */
+  private List<String> getUntrackedLeaves(Neo4jConnection connection, String itemId, VersionHistoryDAG<?> dag, List<String> parentIds) {
+    List<String> dagLeaves = dag.getLeaves();
+    if (dagLeaves.isEmpty() || connection.getAdjacentVerticesByEdgeLabel("Leaf", itemId, LEAF_FIELDS).hasNext()) {
+      return Collections.emptyList();
     }
+
+    List<String> leaves = new ArrayList<>(dagLeaves);
+    leaves.removeAll(parentIds);
+
+    return leaves;
   }
 
-  public List<String> getLeaves(GroundDBConnection connection, String itemId) throws GroundException {
+  /**
+   * Keep the item's Leaf edges in step with its version history: the new version is a leaf, and
+   * its parents no longer are.
+   */
+  private void updateLeaves(Neo4jConnection connection, String itemId, String childId, List<String> parentIds) {
+    for (String parentId : parentIds) {
+      connection.deleteEdge("Leaf", itemId, parentId);
+    }
+
+    connection.addEdge("Leaf", itemId, childId, new ArrayList<>());
+  }
+
+  public List<String> getLeaves(GroundDBConnection connectionPointer, String itemId) throws GroundException {
+    Neo4jConnection connection = (Neo4jConnection) connectionPointer;
+
+    List<String> leaves = new ArrayList<>();
+    StatementResult records = connection.getAdjacentVerticesByEdgeLabel("Leaf", itemId, LEAF_FIELDS);
+    while (records.hasNext()) {
+      leaves.add(records.next().get("id").asString());
+    }
+
+    if (!leaves.isEmpty()) {
+      return leaves;
+    }
+
+    // the item has no versions, or none have been added to it since leaves were tracked
     try {
       VersionHistoryDAG<?> dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connection, itemId);
 
@@ -19,11 +19,10 @@ import edu.berkeley.ground.api.versions.VersionHistoryDAG;
 import edu.berkeley.ground.api.versions.VersionHistoryDAGFactory;
 import edu.berkeley.ground.api.versions.VersionSuccessor;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
-import edu.berkeley.ground.db.Neo4jClient;
+import edu.berkeley.ground.db.Neo4jBatch;
 import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 
-import org.neo4j.driver.internal.value.StringValue;
 import org.neo4j.driver.v1.types.Relationship;
 
 import java.util.ArrayList;
@@ -51,8 +50,9 @@ public class Neo4jVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
 
     List<VersionSuccessor<T>> edges = new ArrayList<>();
 
+    // the relationships already carry the successor's endpoints, so there's no need to look each one up again
     for (Relationship relationship : result) {
-      edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, Neo4jClient.getStringFromValue((StringValue) relationship.get("id"))));
+      edges.add(this.versionSuccessorFactory.constructFromRelationship(relationship));
     }
 
     return construct(itemId, edges);
@@ -63,4 +63,10 @@ public class Neo4jVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
 
     dag.addEdge(parentId, childId, successor.getId());
   }
+
+  public void addEdge(Neo4jBatch batch, VersionHistoryDAG dag, String parentId, String childId) throws GroundException {
+    VersionSuccessor successor = this.versionSuccessorFactory.create(batch, parentId, childId);
+
+    dag.addEdge(parentId, childId, successor.getId());
+  }
 }
@@ -20,6 +20,7 @@ import edu.berkeley.ground.api.versions.VersionSuccessor;
 import edu.berkeley.ground.api.versions.VersionSuccessorFactory;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
+import edu.berkeley.ground.db.Neo4jBatch;
 import edu.berkeley.ground.db.Neo4jClient;
 import edu.berkeley.ground.db.Neo4jClient.Neo4jConnection;
 import edu.berkeley.ground.exceptions.EmptyResultException;
@@ -75,6 +76,23 @@ public class Neo4jVersionSuccessorFactory extends VersionSuccessorFactory {
     return VersionSuccessorFactory.construct(dbId, fromId, toId);
   }
 
+  /**
+   * Add a VersionSuccessor to batch. Unlike create, this doesn't check that the endpoints exist;
+   * the caller is responsible for that, since they may only be created by the same batch.
+   */
+  public <T extends Version> VersionSuccessor<T> create(Neo4jBatch batch, String fromId, String toId) throws GroundException {
+    String dbId = IdGenerator.generateId(fromId + toId);
+
+    List<DbDataContainer> attributes = new ArrayList<>();
+    attributes.add(new DbDataContainer("id", GroundType.STRING, dbId));
+    attributes.add(new DbDataContainer("fromId", GroundType.STRING, fromId));
+    attributes.add(new DbDataContainer("toId", GroundType.STRING, toId));
+
+    batch.addEdge("VersionSuccessor", fromId, toId, attributes);
+
+    return VersionSuccessorFactory.construct(dbId, fromId, toId);
+  }
+
 
   public <T extends Version> VersionSuccessor<T> retrieveFromDatabase(GroundDBConnection connectionPointer, String dbId) throws GroundException {
     Neo4jConnection connection = (Neo4jConnection) connectionPointer;
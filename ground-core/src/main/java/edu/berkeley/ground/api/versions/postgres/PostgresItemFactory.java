@@ -20,16 +20,19 @@ import edu.berkeley.ground.api.versions.VersionHistoryDAG;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
+import edu.berkeley.ground.exceptions.EmptyResultException;
 import edu.berkeley.ground.exceptions.GroundException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class PostgresItemFactory extends ItemFactory {
   private static final Logger LOGGER = LoggerFactory.getLogger(PostgresItemFactory.class);
+  private static final List<String> LEAF_PROJECTION = Collections.singletonList("version_id");
 
   private PostgresVersionHistoryDAGFactory versionHistoryDAGFactory;
 
@@ -63,6 +66,9 @@ public class PostgresItemFactory extends ItemFactory {
       dag = this.versionHistoryDAGFactory.create(itemId);
     }
 
+    // read before the new edges are added to dag
+    List<String> dagLeaves = dag.getLeaves();
+
     for (String parentId : parentIds) {
       if (!parentId.equals("EMPTY") && !dag.checkItemInDag(parentId)) {
         String errorString = "Parent " + parentId + " is not in Item " + itemId + ".";
@@ -73,9 +79,69 @@ public class PostgresItemFactory extends ItemFactory {
 
       this.versionHistoryDAGFactory.addEdge(connectionPointer, dag, parentId, childId, itemId);
     }
+
+    this.updateLeaves((PostgresConnection) connectionPointer, itemId, childId, parentIds, dagLeaves);
+  }
+
+  /**
+   * Keep the item's leaf set in step with its version history: the new version is a leaf, and
+   * its parents no longer are. An item whose versions were all created before leaves were
+   * tracked has no leaf rows, so its leaves are first copied from its version history;
+   * otherwise the leaves of its other branches would be lost.
+   */
+  private void updateLeaves(PostgresConnection connection, String itemId, String childId, List<String> parentIds,
+                            List<String> dagLeaves) throws GroundException {
+    if (!dagLeaves.isEmpty() && !this.hasLeafRows(connection, itemId)) {
+      for (String leaf : dagLeaves) {
+        if (!parentIds.contains(leaf)) {
+          this.insertLeaf(connection, itemId, leaf);
+        }
+      }
+    }
+
+    for (String parentId : parentIds) {
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer("item_id", GroundType.STRING, itemId));
+      predicates.add(new DbDataContainer("version_id", GroundType.STRING, parentId));
+
+      connection.delete("ItemLeaves", predicates);
+    }
+
+    this.insertLeaf(connection, itemId, childId);
+  }
+
+  private boolean hasLeafRows(PostgresConnection connection, String itemId) throws GroundException {
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.STRING, itemId));
+
+    try {
+      connection.equalitySelect("ItemLeaves", LEAF_PROJECTION, predicates);
+      return true;
+    } catch (EmptyResultException eer) {
+      return false;
+    }
+  }
+
+  private void insertLeaf(PostgresConnection connection, String itemId, String versionId) throws GroundException {
+    List<DbDataContainer> insertions = new ArrayList<>();
+    insertions.add(new DbDataContainer("item_id", GroundType.STRING, itemId));
+    insertions.add(new DbDataContainer("version_id", GroundType.STRING, versionId));
+
+    connection.insert("ItemLeaves", insertions);
   }
 
-  public List<String> getLeaves(GroundDBConnection connection, String itemId) throws GroundException {
+  public List<String> getLeaves(GroundDBConnection connectionPointer, String itemId) throws GroundException {
+    PostgresConnection connection = (PostgresConnection) connectionPointer;
+
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.STRING, itemId));
+
+    try {
+      return connection.equalitySelect("ItemLeaves", LEAF_PROJECTION, predicates).getStringList(1);
+    } catch (EmptyResultException eer) {
+      // the item has no versions, or none have been added to it since leaves were tracked
+    }
+
     try {
       VersionHistoryDAG<?> dag = this.versionHistoryDAGFactory.retrieveFromDatabase(connection, itemId);
 
@@ -15,7 +15,6 @@
 package edu.berkeley.ground.api.versions.postgres;
 
 import edu.berkeley.ground.api.versions.*;
-import edu.berkeley.ground.db.DBClient;
 import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
@@ -40,12 +39,9 @@ public class PostgresVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
   public <T extends Version> VersionHistoryDAG<T> retrieveFromDatabase(GroundDBConnection connectionPointer, String itemId) throws GroundException {
     PostgresConnection connection = (PostgresConnection) connectionPointer;
 
-    List<DbDataContainer> predicates = new ArrayList<>();
-    predicates.add(new DbDataContainer("item_id", GroundType.STRING, itemId));
-
     QueryResults resultSet;
     try {
-      resultSet = connection.equalitySelect("VersionHistoryDAGs", DBClient.SELECT_STAR, predicates);
+      resultSet = connection.versionHistorySelect(itemId);
     } catch (EmptyResultException eer) {
       // do nothing' this just means that no versions have been added yet.
       return VersionHistoryDAGFactory.construct(itemId, new ArrayList<VersionSuccessor<T>>());
@@ -53,7 +49,7 @@ public class PostgresVersionHistoryDAGFactory extends VersionHistoryDAGFactory {
 
     List<VersionSuccessor<T>> edges = new ArrayList<>();
     do {
-      edges.add(this.versionSuccessorFactory.retrieveFromDatabase(connection, resultSet.getString(2)));
+      edges.add(this.versionSuccessorFactory.constructFromResults(resultSet));
     } while (resultSet.next());
 
     return VersionHistoryDAGFactory.construct(itemId, edges);
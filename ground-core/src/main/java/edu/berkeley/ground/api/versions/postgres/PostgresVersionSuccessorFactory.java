@@ -65,4 +65,11 @@ public class PostgresVersionSuccessorFactory extends VersionSuccessorFactory {
 
     return VersionSuccessorFactory.construct(dbId, toId, fromId);
   }
+
+  /**
+   * Build a VersionSuccessor from a (successor_id, vfrom, vto) row.
+   */
+  protected <T extends Version> VersionSuccessor<T> constructFromResults(QueryResults resultSet) throws GroundException {
+    return VersionSuccessorFactory.construct(resultSet.getString(1), resultSet.getString(2), resultSet.getString(3));
+  }
 }
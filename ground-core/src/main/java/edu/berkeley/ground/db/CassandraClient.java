@@ -14,78 +14,548 @@
 
 package edu.berkeley.ground.db;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.datastax.driver.core.utils.UUIDs;
 
 import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.exceptions.EmptyResultException;
 import edu.berkeley.ground.exceptions.GroundDBException;
 import edu.berkeley.ground.exceptions.GroundException;
-import edu.berkeley.ground.util.JGraphTUtils;
+import edu.berkeley.ground.util.GraphSnapshot;
+import edu.berkeley.ground.util.VersionGraph;
+import io.dropwizard.lifecycle.Managed;
 
-import org.jgrapht.*;
-import org.jgrapht.graph.DefaultEdge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-
-public class CassandraClient implements DBClient {
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class CassandraClient implements DBClient, Managed {
   private static final Logger LOGGER = LoggerFactory.getLogger(CassandraClient.class);
 
+  private static final int DEFAULT_CORE_CONNECTIONS_PER_HOST = 2;
+  private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+  private static final int DEFAULT_MAX_REQUESTS_PER_CONNECTION = 1024;
+  private static final int DEFAULT_MAX_PENDING_WRITES = 32;
+  private static final int DEFAULT_GRAPH_POLL_INTERVAL = 1000;
+
+  // the maximum number of rows sent in a single unlogged batch
+  private static final int MAX_BATCH_SIZE = 100;
+
+  // the number of rows fetched per page while loading the graph
+  private static final int GRAPH_FETCH_SIZE = 5000;
+
+  // GraphLog rows are partitioned by hour, and expire after a week (see cassandra.sql)
+  private static final long GRAPH_LOG_BUCKET_SIZE = 60 * 60 * 1000L;
+  private static final long GRAPH_LOG_RETENTION = 7 * 24 * 60 * 60 * 1000L;
+
+  // how far before a snapshot's time the log is replayed, to allow for clock skew between servers
+  private static final long GRAPH_LOG_MARGIN = 5 * 60 * 1000L;
+
+  // how far before the newest entry seen in a bucket the bucket is read again, for entries that
+  // became visible after later ones
+  private static final long GRAPH_FEED_OVERLAP = 5 * 1000L;
+
   private Cluster cluster;
   private String keyspace;
-  private DirectedGraph<String, DefaultEdge> graph;
+  private Session session;
+  private VersionGraph graph;
   private PreparedStatement adjacencyStatement;
+  private PreparedStatement graphLogVertexStatement;
+  private PreparedStatement graphLogEdgeStatement;
+  private int maxPendingWrites;
+
+  // where the graph is snapshotted, or null, and the time up to which the graph is complete
+  private Path graphSnapshotPath;
+  private long graphSnapshotInterval;
+  private volatile long graphTimestamp;
+
+  // tails GraphLog for changes made through other servers
+  private long graphPollInterval;
+  private ScheduledExecutorService graphFeed;
+  private Meter graphFeedEntries;
+  private Histogram graphFeedLateness;
+
+  // the newest GraphLog entry seen in each recent bucket; only used by loadGraph, and then by the
+  // feed thread
+  private final Map<Long, UUID> graphLogPositions = new HashMap<>();
+
+  // statements prepared on this cluster, keyed by their CQL text
+  private final Map<String, PreparedStatement> preparedStatements = new ConcurrentHashMap<>();
 
   public CassandraClient(String host, int port, String dbName, String username, String password) throws GroundDBException {
-    cluster = Cluster.builder()
+    this(host, port, dbName, username, password, DEFAULT_CORE_CONNECTIONS_PER_HOST,
+        DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_MAX_REQUESTS_PER_CONNECTION, DEFAULT_MAX_PENDING_WRITES,
+        null, 0, DEFAULT_GRAPH_POLL_INTERVAL, new MetricRegistry());
+  }
+
+  /**
+   * Create a client that shares a single session, and its per-host connection pools, across all
+   * connections.
+   *
+   * @param coreConnectionsPerHost   the number of connections kept open to each local host
+   * @param maxConnectionsPerHost    the maximum number of connections opened to each local host
+   * @param maxRequestsPerConnection the maximum number of concurrent requests per connection
+   * @param maxPendingWrites         the maximum number of asynchronous writes each connection
+   *                                 leaves in flight
+   * @param graphSnapshotPath        the file the in-memory graph is snapshotted to, or null to
+   *                                 load the whole graph from the database at every start
+   * @param graphSnapshotInterval    the time in milliseconds between snapshots written while the
+   *                                 client runs, or 0 to only snapshot after a full load and at
+   *                                 stop
+   * @param graphPollInterval        the time in milliseconds between polls of the log of graph
+   *                                 changes made through other servers, or 0 to not poll
+   * @param metricRegistry           the registry to publish session metrics to
+   */
+  public CassandraClient(String host, int port, String dbName, String username, String password,
+                         int coreConnectionsPerHost, int maxConnectionsPerHost,
+                         int maxRequestsPerConnection, int maxPendingWrites,
+                         String graphSnapshotPath, long graphSnapshotInterval, long graphPollInterval,
+                         MetricRegistry metricRegistry) throws GroundDBException {
+    this.maxPendingWrites = Math.max(1, maxPendingWrites);
+    this.graphSnapshotPath = (graphSnapshotPath == null || graphSnapshotPath.isEmpty()) ? null : Paths.get(graphSnapshotPath);
+    this.graphSnapshotInterval = graphSnapshotInterval;
+    this.graphPollInterval = graphPollInterval;
+
+    PoolingOptions poolingOptions = new PoolingOptions()
+        .setConnectionsPerHost(HostDistance.LOCAL, coreConnectionsPerHost, Math.max(coreConnectionsPerHost, maxConnectionsPerHost))
+        .setMaxRequestsPerConnection(HostDistance.LOCAL, maxRequestsPerConnection);
+
+    this.cluster = Cluster.builder()
         .addContactPoint(host)
         .withAuthProvider(new PlainTextAuthProvider(username, password))
+        .withPoolingOptions(poolingOptions)
         .build();
 
     this.keyspace = dbName;
 
-    // at startup, load all nodes & edges into JGraphT for later in-memory processing
-    ResultSet resultSet = this.cluster.connect(this.keyspace).execute("select id from nodeversions;");
-    this.graph = JGraphTUtils.createGraph();
+    // a session owns a connection pool to every host, so it is expensive to create; open one and
+    // share it between all connections, which are only lightweight handles on it
+    this.session = this.cluster.connect(this.keyspace);
+
+    // vertices leave to_id out, since binding it to null would write a tombstone for each of them
+    this.graphLogVertexStatement = this.prepare("insert into GraphLog (bucket, time, from_id) values (?, now(), ?);");
+    this.graphLogEdgeStatement = this.prepare("insert into GraphLog (bucket, time, from_id, to_id) values (?, now(), ?, ?);");
+
+    // how far behind the newest entry in its bucket each entry was when it was first applied; as
+    // this approaches GRAPH_FEED_OVERLAP, entries may be missed until the next restart
+    this.graphFeedLateness = metricRegistry.histogram(MetricRegistry.name(CassandraClient.class, "graph", "lateness"));
+
+    // at startup, load all nodes & edges into memory for later in-memory processing
+    this.loadGraph();
+
+    this.adjacencyStatement = this.prepare("select endpoint_two, edge_id from EdgeVersionsByEndpoint where endpoint_one = ?;");
+
+    metricRegistry.register(MetricRegistry.name(CassandraClient.class, "session", "inFlight"), (Gauge<Integer>) this::getInFlightQueries);
+    metricRegistry.register(MetricRegistry.name(CassandraClient.class, "session", "openConnections"), (Gauge<Integer>) this::getOpenConnections);
+    metricRegistry.register(MetricRegistry.name(CassandraClient.class, "session", "connectedHosts"), (Gauge<Integer>) () -> this.session.getState().getConnectedHosts().size());
+    metricRegistry.register(MetricRegistry.name(CassandraClient.class, "statements", "prepared"), (Gauge<Integer>) this.preparedStatements::size);
+
+    // the time, in milliseconds, since the graph last caught up with every entry visible in the
+    // log; see graph.lateness for entries that weren't visible in time
+    metricRegistry.register(MetricRegistry.name(CassandraClient.class, "graph", "lag"), (Gauge<Long>) () -> System.currentTimeMillis() - this.graphTimestamp);
+    metricRegistry.register(MetricRegistry.name(CassandraClient.class, "graph", "vertices"), (Gauge<Integer>) this.graph::getVertexCount);
+    this.graphFeedEntries = metricRegistry.meter(MetricRegistry.name(CassandraClient.class, "graph", "feed"));
+  }
+
+  public CassandraConnection getConnection() throws GroundDBException {
+    return new CassandraConnection(this.session, this.graph, this.adjacencyStatement, this.maxPendingWrites);
+  }
+
+  /**
+   * Prepare the insert of a set of columns into table ahead of its first use.
+   *
+   * @param table  the table to update
+   * @param fields the columns, in the order in which they are inserted
+   */
+  public void prepareInsert(String table, String... fields) {
+    this.prepare(CassandraClient.getInsertStatement(table, Arrays.asList(fields)));
+  }
+
+  /**
+   * Prepare the deletion of rows from table ahead of its first use.
+   *
+   * @param table  the table to update
+   * @param fields the predicate columns, in the order in which they are bound
+   */
+  public void prepareDelete(String table, String... fields) {
+    this.prepare(CassandraClient.getDeleteStatement(table, Arrays.asList(fields)));
+  }
+
+  /**
+   * Prepare an equality select on table ahead of its first use.
+   *
+   * @param table      the table to query
+   * @param projection the set of columns to retrieve
+   * @param fields     the predicate columns, in the order in which they are bound
+   */
+  public void prepareSelect(String table, List<String> projection, String... fields) {
+    this.prepare(CassandraClient.getSelectStatement(table, projection, Arrays.asList(fields)));
+  }
 
-    for (Row r : resultSet.all()) {
-      JGraphTUtils.addVertex(graph, r.getString(0));
+  /**
+   * Return the statement prepared for cql, preparing it on the first request. Preparing is a
+   * round trip to the cluster, so every statement shape is only prepared once.
+   *
+   * @param cql the statement text
+   * @return the prepared statement
+   */
+  private PreparedStatement prepare(String cql) {
+    PreparedStatement statement = this.preparedStatements.get(cql);
+
+    if (statement == null) {
+      // prepared outside the map, since computeIfAbsent would hold a lock on the map's bin, and
+      // block other statements in it, for the whole round trip; two threads may both prepare the
+      // same statement, which is harmless, and the first one stored is kept
+      PreparedStatement prepared = this.session.prepare(cql);
+
+      statement = this.preparedStatements.putIfAbsent(cql, prepared);
+      if (statement == null) {
+        statement = prepared;
+      }
     }
 
-    resultSet = this.cluster.connect(this.keyspace).execute("select endpoint_one, endpoint_two from edgeversions;");
+    return statement;
+  }
+
+  @Override
+  public void start() throws Exception {
+    // the session is opened in the constructor because the graph is loaded through it
+    boolean snapshotting = this.graphSnapshotPath != null && this.graphSnapshotInterval > 0;
+    if (this.graphPollInterval > 0 || snapshotting) {
+      this.graphFeed = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cassandra-graph-feed");
+        thread.setDaemon(true);
+
+        return thread;
+      });
+    }
 
-    for (Row r : resultSet.all()) {
-      JGraphTUtils.addEdge(graph, r.getString(0), r.getString(1));
+    if (this.graphPollInterval > 0) {
+      this.graphFeed.scheduleWithFixedDelay(this::pollGraphLog, this.graphPollInterval, this.graphPollInterval, TimeUnit.MILLISECONDS);
     }
 
-    this.adjacencyStatement = this.cluster.connect(this.keyspace).prepare("select endpoint_two, edge_id from EdgeVersions where endpoint_one = ? allow filtering;");
+    // on the same thread as the polls, so a snapshot is always taken between two of them
+    if (snapshotting) {
+      this.graphFeed.scheduleWithFixedDelay(this::snapshotGraph, this.graphSnapshotInterval, this.graphSnapshotInterval, TimeUnit.MILLISECONDS);
+    }
   }
 
-  public CassandraConnection getConnection() throws GroundDBException {
-    return new CassandraConnection(this.cluster.connect(this.keyspace), this.graph, this.adjacencyStatement);
+  @Override
+  public void stop() throws Exception {
+    if (this.graphFeed != null) {
+      this.graphFeed.shutdown();
+      this.graphFeed.awaitTermination(this.graphPollInterval + 30000, TimeUnit.MILLISECONDS);
+    }
+
+    this.writeGraphSnapshot();
+
+    this.session.close();
+    this.cluster.close();
+  }
+
+  /**
+   * Load the graph from the snapshot, catching up on later changes from GraphLog. Without a
+   * usable snapshot, page through all of the node and edge versions instead, and snapshot the
+   * result so that the next start is fast.
+   */
+  private void loadGraph() {
+    long start = System.currentTimeMillis();
+    this.graph = new VersionGraph();
+
+    if (this.graphSnapshotPath != null && Files.exists(this.graphSnapshotPath)) {
+      try {
+        long snapshotTimestamp = GraphSnapshot.read(this.graphSnapshotPath, this.graph);
+
+        if (start - snapshotTimestamp < GRAPH_LOG_RETENTION - GRAPH_LOG_MARGIN) {
+          long changes = this.replayGraphLog(snapshotTimestamp - GRAPH_LOG_MARGIN, start + GRAPH_LOG_MARGIN);
+          this.graphTimestamp = start;
+
+          LOGGER.info("Loaded graph snapshot and " + changes + " later changes in " + (System.currentTimeMillis() - start) + " ms.");
+          return;
+        }
+
+        LOGGER.info("Graph snapshot is older than the graph log; loading the graph from the database.");
+      } catch (IOException | RuntimeException e) {
+        // e.g. a successor handle out of range in a corrupt snapshot
+        LOGGER.error("Unable to read graph snapshot: " + e);
+      }
+
+      this.graph = new VersionGraph();
+    }
+
+    // page through the tables so that they are never fully materialized in memory
+    for (Row row : this.session.execute(new SimpleStatement("select id from NodeVersions;").setFetchSize(GRAPH_FETCH_SIZE))) {
+      this.graph.addVertex(row.getString(0));
+    }
+
+    // the endpoints of edges written after the node versions were read are added as well
+    for (Row row : this.session.execute(new SimpleStatement("select endpoint_one, endpoint_two from EdgeVersions;").setFetchSize(GRAPH_FETCH_SIZE))) {
+      this.graph.addEdge(row.getString(0), row.getString(1));
+    }
+
+    this.graphTimestamp = start;
+    LOGGER.info("Loaded graph from the database in " + (System.currentTimeMillis() - start) + " ms.");
+
+    try {
+      this.writeGraphSnapshot();
+    } catch (IOException e) {
+      LOGGER.error("Unable to write graph snapshot: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Apply the changes in GraphLog that this server hasn't seen yet, so that versions created
+   * through other servers show up in this server's graph. The entries written by this server are
+   * applied again, which leaves the graph unchanged.
+   */
+  private void pollGraphLog() {
+    long now = System.currentTimeMillis();
+
+    try {
+      long entries = this.replayGraphLog(this.graphTimestamp - GRAPH_LOG_MARGIN, now + GRAPH_LOG_MARGIN);
+
+      this.graphFeedEntries.mark(entries);
+      this.graphTimestamp = now;
+    } catch (DriverException e) {
+      // try again at the next poll; meanwhile the lag metric grows
+      LOGGER.error("Unable to read the graph log: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Apply the changes in GraphLog between two times to the graph. Buckets come from the writers'
+   * clocks and entry times from the coordinators', so neither is compared with this server's
+   * clock: callers widen the range by GRAPH_LOG_MARGIN for skew between the writers and this
+   * server, and a bucket that has been read before is read again from just before the newest
+   * entry seen in it, rather than from the time of the last poll.
+   *
+   * @return the number of changes applied
+   */
+  private long replayGraphLog(long from, long to) {
+    PreparedStatement replay = this.prepare("select time, from_id, to_id from GraphLog where bucket = ? and time > ?;");
+
+    long changes = 0;
+    for (long bucket = from / GRAPH_LOG_BUCKET_SIZE; bucket <= to / GRAPH_LOG_BUCKET_SIZE; bucket++) {
+      UUID position = this.graphLogPositions.get(bucket);
+      long newest = position == null ? 0 : UUIDs.unixTimestamp(position);
+
+      UUID start = position == null ? UUIDs.startOf(from) : UUIDs.startOf(newest - GRAPH_FEED_OVERLAP);
+      Statement statement = replay.bind(bucket, start).setFetchSize(GRAPH_FETCH_SIZE);
+
+      for (Row row : this.session.execute(statement)) {
+        UUID time = row.getUUID(0);
+        String fromId = row.getString(1);
+        String toId = row.getString(2);
+
+        // an entry older than one already seen, which the graph doesn't have yet, arrived late
+        long entryTime = UUIDs.unixTimestamp(time);
+        if (entryTime < newest && (toId == null ? !this.graph.containsVertex(fromId) : !this.graph.getSuccessors(fromId).contains(toId))) {
+          this.graphFeedLateness.update(newest - entryTime);
+        }
+
+        if (toId == null) {
+          this.graph.addVertex(fromId);
+        } else {
+          this.graph.addEdge(fromId, toId);
+        }
+
+        if (position == null || entryTime > UUIDs.unixTimestamp(position)) {
+          position = time;
+        }
+
+        changes++;
+      }
+
+      if (position != null) {
+        this.graphLogPositions.put(bucket, position);
+      }
+    }
+
+    // buckets before the range are never read again
+    this.graphLogPositions.keySet().removeIf(bucket -> bucket < from / GRAPH_LOG_BUCKET_SIZE);
+
+    return changes;
+  }
+
+  /**
+   * Snapshot the graph while the server runs, so that a restart after a crash, which skips the
+   * snapshot in stop, only has to replay the log since the last one. The snapshot is stamped with
+   * the time of the last successful poll, so the replay covers everything the feed hadn't seen.
+   */
+  private void snapshotGraph() {
+    try {
+      this.writeGraphSnapshot();
+    } catch (IOException | RuntimeException e) {
+      // the previous snapshot is left in place; try again at the next interval
+      LOGGER.error("Unable to write graph snapshot: " + e);
+    }
+  }
+
+  // synchronized because stop may write while a periodic snapshot that outlasted the shutdown
+  // wait is still using the temporary file
+  private synchronized void writeGraphSnapshot() throws IOException {
+    if (this.graphSnapshotPath != null) {
+      GraphSnapshot.write(this.graphSnapshotPath, this.graphTimestamp, this.graph);
+      LOGGER.info("Wrote graph snapshot to " + this.graphSnapshotPath + ".");
+    }
+  }
+
+  private int getInFlightQueries() {
+    Session.State state = this.session.getState();
+
+    int inFlight = 0;
+    for (Host host : state.getConnectedHosts()) {
+      inFlight += state.getInFlightQueries(host);
+    }
+
+    return inFlight;
+  }
+
+  private int getOpenConnections() {
+    Session.State state = this.session.getState();
+
+    int connections = 0;
+    for (Host host : state.getConnectedHosts()) {
+      connections += state.getOpenConnections(host);
+    }
+
+    return connections;
   }
 
   public class CassandraConnection extends GroundDBConnection {
     private Session session;
-    private DirectedGraph<String, DefaultEdge> graph;
+    private VersionGraph graph;
     private PreparedStatement adjacencyStatement;
 
-    public CassandraConnection(Session session, DirectedGraph<String, DefaultEdge> graph, PreparedStatement adjacencyStatement) {
+    // writes that have been sent but not yet acknowledged, oldest first
+    private Deque<ResultSetFuture> pendingWrites;
+    private int maxPendingWrites;
+
+    public CassandraConnection(Session session, VersionGraph graph, PreparedStatement adjacencyStatement, int maxPendingWrites) {
       this.session = session;
       this.graph = graph;
       this.adjacencyStatement = adjacencyStatement;
+      this.pendingWrites = new ArrayDeque<>();
+      this.maxPendingWrites = maxPendingWrites;
     }
 
     /**
-     * Insert a new row into table with insertValues.
+     * Insert a new row into table with insertValues. The write is sent asynchronously; it is
+     * guaranteed to have been applied once a later read on this connection, or commit, returns.
      *
      * @param table        the table to update
      * @param insertValues the values to put into table
      */
-    public void insert(String table, List<DbDataContainer> insertValues) {
-      // hack to keep JGraphT up to date
+    public void insert(String table, List<DbDataContainer> insertValues) throws GroundDBException {
+      this.updateGraph(table, insertValues);
+
+      String insert = CassandraClient.getInsertStatement(table, CassandraClient.getFields(insertValues));
+      BoundStatement statement = this.bind(CassandraClient.this.prepare(insert), insertValues);
+
+      LOGGER.info("Executing update: " + statement.preparedStatement().getQueryString() + ".");
+
+      this.executeAsync(statement);
+    }
+
+    /**
+     * Insert many rows into table with unlogged batches. Every row must set the same columns in
+     * the same order, and the rows should share a partition key so that each batch is applied by
+     * a single replica set.
+     *
+     * @param table the table to update
+     * @param rows  the values for each row to put into table
+     */
+    public void insertBatch(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+      if (rows.isEmpty()) {
+        return;
+      }
+
+      PreparedStatement preparedStatement = CassandraClient.this.prepare(CassandraClient.getInsertStatement(table, CassandraClient.getFields(rows.get(0))));
+
+      LOGGER.info("Executing batch update of " + rows.size() + " rows: " + preparedStatement.getQueryString() + ".");
+
+      // large batches trip Cassandra's batch size limits, so split them up
+      for (int start = 0; start < rows.size(); start += MAX_BATCH_SIZE) {
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+
+        for (List<DbDataContainer> row : rows.subList(start, Math.min(start + MAX_BATCH_SIZE, rows.size()))) {
+          this.updateGraph(table, row);
+          batch.add(this.bind(preparedStatement, row));
+        }
+
+        this.executeAsync(batch);
+      }
+    }
+
+    /**
+     * Send a write without waiting for it. If the maximum number of writes is already in flight,
+     * first wait for the oldest of them to complete.
+     */
+    private void executeAsync(Statement statement) throws GroundDBException {
+      if (this.pendingWrites.size() >= this.maxPendingWrites) {
+        this.await(this.pendingWrites.poll());
+      }
+
+      this.pendingWrites.add(this.session.executeAsync(statement));
+    }
+
+    /**
+     * Wait for every write in flight on this connection to complete.
+     *
+     * @throws GroundDBException if any of the writes failed
+     */
+    private void flush() throws GroundDBException {
+      GroundDBException failure = null;
+
+      while (!this.pendingWrites.isEmpty()) {
+        try {
+          this.await(this.pendingWrites.poll());
+        } catch (GroundDBException e) {
+          // keep waiting for the rest, so that nothing is left in flight
+          if (failure == null) {
+            failure = e;
+          }
+        }
+      }
+
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    private void await(ResultSetFuture write) throws GroundDBException {
+      try {
+        write.getUninterruptibly();
+      } catch (DriverException e) {
+        LOGGER.error("Unexpected error in database update: " + e.getMessage());
+
+        throw new GroundDBException(e);
+      }
+    }
+
+    private void updateGraph(String table, List<DbDataContainer> insertValues) throws GroundDBException {
+      // hack to keep the in-memory graph up to date
       if (table.equals("NodeVersions")) {
         String id = null;
         for (DbDataContainer container : insertValues) {
@@ -94,7 +564,8 @@ public class CassandraClient implements DBClient {
           }
         }
 
-        JGraphTUtils.addVertex(this.graph, id);
+        this.graph.addVertex(id);
+        this.logGraphVertex(id);
       }
       if (table.equals("EdgeVersions")) {
         String nvFromId = null;
@@ -110,34 +581,55 @@ public class CassandraClient implements DBClient {
           }
         }
 
-        JGraphTUtils.addEdge(this.graph, nvFromId, nvToId);
+        this.graph.addEdge(nvFromId, nvToId);
+        this.logGraphEdge(nvFromId, nvToId);
       }
+    }
 
-      String insertString = "insert into " + table + "(";
-      String valuesString = "values (";
+    /**
+     * Record a new vertex in GraphLog so that graphs loaded from an older snapshot can catch up on
+     * it. The entry has no to_id, which is how replayGraphLog tells it from an edge.
+     */
+    private void logGraphVertex(String id) throws GroundDBException {
+      long bucket = System.currentTimeMillis() / GRAPH_LOG_BUCKET_SIZE;
 
-      for (DbDataContainer container : insertValues) {
-        insertString += container.getField() + ", ";
-        valuesString += "?, ";
-      }
+      this.executeAsync(CassandraClient.this.graphLogVertexStatement.bind(bucket, id));
+    }
 
-      insertString = insertString.substring(0, insertString.length() - 2) + ")";
-      valuesString = valuesString.substring(0, valuesString.length() - 2) + ")";
+    // like logGraphVertex, for a new edge
+    private void logGraphEdge(String fromId, String toId) throws GroundDBException {
+      long bucket = System.currentTimeMillis() / GRAPH_LOG_BUCKET_SIZE;
 
-      String prepString = insertString + valuesString + ";";
+      this.executeAsync(CassandraClient.this.graphLogEdgeStatement.bind(bucket, fromId, toId));
+    }
 
-      BoundStatement statement = new BoundStatement(session.prepare(prepString));
+    private BoundStatement bind(PreparedStatement preparedStatement, List<DbDataContainer> values) {
+      BoundStatement statement = new BoundStatement(preparedStatement);
 
       int index = 0;
-      for (DbDataContainer container : insertValues) {
+      for (DbDataContainer container : values) {
         CassandraClient.setValue(statement, container.getValue(), container.getGroundType(), index);
 
         index++;
       }
 
+      return statement;
+    }
+
+    /**
+     * Delete the rows of table that match a set of predicates. The predicates must cover the
+     * table's primary key.
+     *
+     * @param table               the table to update
+     * @param predicatesAndValues the predicates
+     */
+    public void delete(String table, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+      String delete = CassandraClient.getDeleteStatement(table, CassandraClient.getFields(predicatesAndValues));
+      BoundStatement statement = this.bind(CassandraClient.this.prepare(delete), predicatesAndValues);
+
       LOGGER.info("Executing update: " + statement.preparedStatement().getQueryString() + ".");
 
-      this.session.execute(statement);
+      this.executeAsync(statement);
     }
 
     /**
@@ -148,35 +640,13 @@ public class CassandraClient implements DBClient {
      * @param predicatesAndValues the predicates
      */
     public CassandraResults equalitySelect(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) throws EmptyResultException, GroundDBException {
-      String select = "select ";
-      for (String item : projection) {
-        select += item + ", ";
-      }
-
-      select = select.substring(0, select.length() - 2) + " from " + table;
-
-      if (predicatesAndValues.size() > 0) {
-        select += " where ";
-
-        for (DbDataContainer container : predicatesAndValues) {
-          select += container.getField() + " = ? and ";
-        }
-
-        select = select.substring(0, select.length() - 4);
-      }
-
-      BoundStatement statement = new BoundStatement(this.session.prepare(select + "ALLOW FILTERING;"));
-
-      int index = 0;
-      for (DbDataContainer container : predicatesAndValues) {
-        CassandraClient.setValue(statement, container.getValue(), container.getGroundType(), index);
-
-        index++;
-      }
+      String select = CassandraClient.getSelectStatement(table, projection, CassandraClient.getFields(predicatesAndValues));
+      BoundStatement statement = this.bind(CassandraClient.this.prepare(select), predicatesAndValues);
 
       LOGGER.info("Executing query: " + statement.preparedStatement().getQueryString() + ".");
 
-
+      // reads must see this connection's earlier writes
+      this.flush();
       ResultSet resultSet = this.session.execute(statement);
 
       if (resultSet == null || resultSet.isExhausted()) {
@@ -187,7 +657,7 @@ public class CassandraClient implements DBClient {
     }
 
     public List<String> transitiveClosure(String nodeVersionId) throws GroundException {
-      return JGraphTUtils.runDFS(this.graph, nodeVersionId);
+      return this.graph.getDescendants(nodeVersionId);
     }
 
     public List<String> adjacentNodes(String nodeVersionId, String edgeNameRegex) throws GroundException {
@@ -195,6 +665,7 @@ public class CassandraClient implements DBClient {
 
       statement.setString(0, nodeVersionId);
 
+      this.flush();
       ResultSet resultSet = this.session.execute(statement);
 
       List<String> result = new ArrayList<>();
@@ -209,14 +680,81 @@ public class CassandraClient implements DBClient {
     }
 
     public void commit() throws GroundDBException {
-      // do nothing; Cassandra doesn't have txns
+      // Cassandra doesn't have txns, and the session is shared by every connection, so just make
+      // sure that every write has been applied
+      this.flush();
     }
 
     public void abort() throws GroundDBException {
-      // do nothing; Cassandra doesn't have txns
+      // Cassandra doesn't have txns, so the writes can't be undone; only wait for them to finish
+      try {
+        this.flush();
+      } catch (GroundDBException e) {
+        // the operation is being aborted anyway
+      }
     }
   }
 
+  private static List<String> getFields(List<DbDataContainer> containers) {
+    List<String> fields = new ArrayList<>(containers.size());
+
+    for (DbDataContainer container : containers) {
+      fields.add(container.getField());
+    }
+
+    return fields;
+  }
+
+  private static String getInsertStatement(String table, List<String> fields) {
+    StringBuilder insert = new StringBuilder("insert into ").append(table).append("(");
+    StringBuilder values = new StringBuilder("values (");
+
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        insert.append(", ");
+        values.append(", ");
+      }
+
+      insert.append(fields.get(i));
+      values.append("?");
+    }
+
+    return insert.append(")").append(values).append(");").toString();
+  }
+
+  private static String getDeleteStatement(String table, List<String> fields) {
+    StringBuilder delete = new StringBuilder("delete from ").append(table).append(" where ");
+
+    for (int i = 0; i < fields.size(); i++) {
+      if (i > 0) {
+        delete.append(" and ");
+      }
+
+      delete.append(fields.get(i)).append(" = ?");
+    }
+
+    return delete.append(";").toString();
+  }
+
+  private static String getSelectStatement(String table, List<String> projection, List<String> fields) {
+    StringBuilder select = new StringBuilder("select ").append(String.join(", ", projection))
+        .append(" from ").append(table);
+
+    if (fields.size() > 0) {
+      select.append(" where ");
+
+      for (int i = 0; i < fields.size(); i++) {
+        if (i > 0) {
+          select.append(" and ");
+        }
+
+        select.append(fields.get(i)).append(" = ?");
+      }
+    }
+
+    return select.append(";").toString();
+  }
+
   private static void setValue(BoundStatement statement, Object value, GroundType groundType, int index) {
     switch (groundType) {
       case STRING:
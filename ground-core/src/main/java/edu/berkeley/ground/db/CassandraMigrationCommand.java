@@ -0,0 +1,255 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.db;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.KeyspaceMetadata;
+import com.datastax.driver.core.PlainTextAuthProvider;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.SimpleStatement;
+import com.datastax.driver.core.Statement;
+
+import edu.berkeley.ground.GroundServerConfiguration;
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.setup.Bootstrap;
+
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Brings a keyspace created from an older cassandra.sql up to the current schema. This is the
+ * only upgrade path for Cassandra, so every schema change has a step here:
+ * - the vfrom and vto columns of VersionHistoryDAGs, filled in from VersionSuccessors
+ * - ItemLeaves, filled in from each item's version history
+ * - the lookup tables (NodesByName, EdgeVersionsByEndpoint, TagsByKey, ...), filled in from the
+ *   tables they index
+ * - GraphLog
+ * Tables and columns are only added if they are missing, and rows are only ever upserted, so the
+ * migration can safely be run again, e.g. after it was interrupted.
+ *
+ * Usage: java -jar ground-core.jar migrate-cassandra config.yml
+ */
+public class CassandraMigrationCommand extends ConfiguredCommand<GroundServerConfiguration> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CassandraMigrationCommand.class);
+
+  // the number of rows read from the source tables per page
+  private static final int FETCH_SIZE = 1000;
+
+  // the maximum number of writes in flight at once
+  private static final int MAX_IN_FLIGHT = 256;
+
+  private static final String[] ITEM_TABLES = {"Structures", "Nodes", "Edges", "Graphs", "LineageEdges"};
+
+  public CassandraMigrationCommand() {
+    super("migrate-cassandra", "Upgrade an existing Cassandra keyspace to the current schema");
+  }
+
+  @Override
+  protected void run(Bootstrap<GroundServerConfiguration> bootstrap, Namespace namespace, GroundServerConfiguration configuration) throws Exception {
+    Cluster cluster = Cluster.builder()
+        .addContactPoint(configuration.getDbHost())
+        .withAuthProvider(new PlainTextAuthProvider(configuration.getDbUser(), configuration.getDbPassword()))
+        .build();
+
+    try (Session session = cluster.connect(configuration.getDbName())) {
+      migrate(session);
+    } finally {
+      cluster.close();
+    }
+  }
+
+  /**
+   * Apply every schema change to a keyspace, in order.
+   *
+   * @param session a session on the keyspace to migrate
+   */
+  public static void migrate(Session session) {
+    addDagEndpoints(session);
+    addItemLeaves(session);
+
+    for (String table : ITEM_TABLES) {
+      session.execute("create table if not exists " + table + "ByName (name varchar primary key, item_id varchar);");
+      copy(session, "select name, item_id from " + table + ";",
+          "insert into " + table + "ByName (name, item_id) values (?, ?);", 2);
+    }
+
+    session.execute("create table if not exists EdgeVersionsByEndpoint (endpoint_one varchar, id varchar, edge_id varchar, endpoint_two varchar, primary key(endpoint_one, id));");
+    copy(session, "select endpoint_one, id, edge_id, endpoint_two from EdgeVersions;",
+        "insert into EdgeVersionsByEndpoint (endpoint_one, id, edge_id, endpoint_two) values (?, ?, ?, ?);", 4);
+
+    session.execute("create table if not exists GraphLog (bucket bigint, time timeuuid, from_id varchar, to_id varchar, primary key(bucket, time)) with default_time_to_live = 604800;");
+
+    session.execute("create table if not exists TagsByKey (key varchar, richversion_id varchar, primary key(key, richversion_id));");
+    copy(session, "select key, richversion_id from Tags;",
+        "insert into TagsByKey (key, richversion_id) values (?, ?);", 2);
+  }
+
+  /**
+   * Add the vfrom and vto columns to VersionHistoryDAGs, and fill them in from VersionSuccessors
+   * for rows written before the columns existed.
+   */
+  private static void addDagEndpoints(Session session) {
+    for (String column : new String[]{"vfrom", "vto"}) {
+      if (!hasColumn(session, "versionhistorydags", column)) {
+        session.execute("alter table VersionHistoryDAGs add " + column + " varchar;");
+      }
+    }
+
+    PreparedStatement selectSuccessor = session.prepare("select vfrom, vto from VersionSuccessors where successor_id = ?;");
+    PreparedStatement update = session.prepare("update VersionHistoryDAGs set vfrom = ?, vto = ? where item_id = ? and successor_id = ?;");
+
+    Statement statement = new SimpleStatement("select item_id, successor_id, vfrom from VersionHistoryDAGs;").setFetchSize(FETCH_SIZE);
+    List<ResultSetFuture> inFlight = new ArrayList<>();
+    long count = 0;
+
+    for (Row row : session.execute(statement)) {
+      if (row.getString("vfrom") != null) {
+        continue;
+      }
+
+      Row successor = session.execute(selectSuccessor.bind(row.getString("successor_id"))).one();
+      if (successor == null) {
+        LOGGER.warn("Skipping missing successor " + row.getString("successor_id") + " of " + row.getString("item_id") + ".");
+        continue;
+      }
+
+      inFlight.add(session.executeAsync(update.bind(successor.getString("vfrom"), successor.getString("vto"),
+          row.getString("item_id"), row.getString("successor_id"))));
+      count++;
+
+      if (inFlight.size() >= MAX_IN_FLIGHT) {
+        awaitAll(inFlight);
+      }
+    }
+
+    awaitAll(inFlight);
+    LOGGER.info("Filled in the endpoints of " + count + " VersionHistoryDAGs rows.");
+  }
+
+  /**
+   * Create ItemLeaves, and fill it in from VersionHistoryDAGs for items that have no leaves yet.
+   * Relies on every DAG row having its endpoints, so it runs after addDagEndpoints.
+   */
+  private static void addItemLeaves(Session session) {
+    session.execute("create table if not exists ItemLeaves (item_id varchar, version_id varchar, primary key(item_id, version_id));");
+
+    PreparedStatement selectLeaf = session.prepare("select version_id from ItemLeaves where item_id = ? limit 1;");
+    PreparedStatement insert = session.prepare("insert into ItemLeaves (item_id, version_id) values (?, ?);");
+
+    // a full scan returns all the rows of a partition together, so each item's DAG is contiguous
+    Statement statement = new SimpleStatement("select item_id, vfrom, vto from VersionHistoryDAGs;").setFetchSize(FETCH_SIZE);
+    List<ResultSetFuture> inFlight = new ArrayList<>();
+    String itemId = null;
+    Set<String> parents = new HashSet<>();
+    Set<String> children = new HashSet<>();
+    long count = 0;
+
+    for (Row row : session.execute(statement)) {
+      if (!row.getString("item_id").equals(itemId)) {
+        count += writeLeaves(session, selectLeaf, insert, itemId, parents, children, inFlight);
+        itemId = row.getString("item_id");
+      }
+
+      parents.add(row.getString("vfrom"));
+      children.add(row.getString("vto"));
+    }
+
+    count += writeLeaves(session, selectLeaf, insert, itemId, parents, children, inFlight);
+    awaitAll(inFlight);
+    LOGGER.info("Filled in " + count + " ItemLeaves rows.");
+  }
+
+  /**
+   * Write the leaves of one item's DAG, unless the item already has leaves, and clear parents and
+   * children for the next item.
+   */
+  private static int writeLeaves(Session session, PreparedStatement selectLeaf, PreparedStatement insert, String itemId,
+                                 Set<String> parents, Set<String> children, List<ResultSetFuture> inFlight) {
+    int count = 0;
+
+    if (itemId != null && session.execute(selectLeaf.bind(itemId)).one() == null) {
+      children.removeAll(parents);
+
+      for (String leaf : children) {
+        inFlight.add(session.executeAsync(insert.bind(itemId, leaf)));
+        count++;
+
+        if (inFlight.size() >= MAX_IN_FLIGHT) {
+          awaitAll(inFlight);
+        }
+      }
+    }
+
+    parents.clear();
+    children.clear();
+
+    return count;
+  }
+
+  private static boolean hasColumn(Session session, String table, String column) {
+    KeyspaceMetadata keyspace = session.getCluster().getMetadata().getKeyspace(session.getLoggedKeyspace());
+
+    return keyspace.getTable(table).getColumn(column) != null;
+  }
+
+  /**
+   * Page through the rows of a select and write each of them with insert, whose bind markers
+   * take the selected columns in order.
+   */
+  private static void copy(Session session, String select, String insert, int columns) {
+    PreparedStatement preparedInsert = session.prepare(insert);
+
+    Statement statement = new SimpleStatement(select).setFetchSize(FETCH_SIZE);
+    List<ResultSetFuture> inFlight = new ArrayList<>();
+    long count = 0;
+
+    for (Row row : session.execute(statement)) {
+      BoundStatement boundInsert = preparedInsert.bind();
+      for (int i = 0; i < columns; i++) {
+        boundInsert.setString(i, row.getString(i));
+      }
+
+      inFlight.add(session.executeAsync(boundInsert));
+      count++;
+
+      if (inFlight.size() >= MAX_IN_FLIGHT) {
+        awaitAll(inFlight);
+      }
+    }
+
+    awaitAll(inFlight);
+    LOGGER.info("Copied " + count + " rows: " + insert);
+  }
+
+  private static void awaitAll(List<ResultSetFuture> futures) {
+    for (ResultSetFuture future : futures) {
+      future.getUninterruptibly();
+    }
+
+    futures.clear();
+  }
+}
@@ -0,0 +1,164 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.berkeley.ground.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects writes for Neo4jConnection.execute, which sends the rows for each kind of write as a
+ * single UNWIND statement instead of running one statement per write. The writes run in phases:
+ * vertices, vertices attached to existing vertices, property updates, edge deletions and edge
+ * creations, so later writes may refer to vertices created earlier in the same batch.
+ */
+public class Neo4jBatch {
+  private static final String VERTEX_LABEL = Neo4jClient.VERTEX_LABEL;
+
+  // statement template -> rows, for each phase
+  private final Map<String, List<Map<String, Object>>> vertices = new LinkedHashMap<>();
+  private final Map<String, List<Map<String, Object>>> childVertices = new LinkedHashMap<>();
+  private final Map<String, List<Map<String, Object>>> properties = new LinkedHashMap<>();
+  private final Map<String, List<Map<String, Object>>> deletedEdges = new LinkedHashMap<>();
+  private final Map<String, List<Map<String, Object>>> edges = new LinkedHashMap<>();
+
+  /**
+   * Add a new vertex to the graph.
+   *
+   * @param label      the vertex label
+   * @param attributes the vertex's attributes
+   */
+  public void addVertex(String label, List<DbDataContainer> attributes) {
+    String statement = "UNWIND {rows} AS row CREATE (v:" + VERTEX_LABEL + ":" + label + ") SET v = row";
+
+    add(this.vertices, statement, toMap(attributes));
+  }
+
+  /**
+   * Add a new vertex and an edge connecting it to another vertex.
+   *
+   * @param label          the vertex label
+   * @param attributes     the vertex's attributes
+   * @param edgeLabel      the edge label
+   * @param fromId         the source of the edge
+   * @param edgeAttributes the edge's attributes
+   */
+  public void addVertexAndEdge(String label, List<DbDataContainer> attributes, String edgeLabel, String fromId, List<DbDataContainer> edgeAttributes) {
+    String statement = "UNWIND {rows} AS row MATCH (f:" + VERTEX_LABEL + " {id : row.fromId}) "
+        + "CREATE (f)-[e:" + edgeLabel + "]->(t:" + label + ") SET t = row.vertex, e = row.edge";
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("fromId", fromId);
+    row.put("vertex", toMap(attributes));
+    row.put("edge", toMap(edgeAttributes));
+
+    add(this.childVertices, statement, row);
+  }
+
+  /**
+   * Set a property on a vertex.
+   *
+   * @param id    the id of the vertex
+   * @param key   the property name
+   * @param value the property value
+   */
+  public void setProperty(String id, String key, Object value) {
+    String statement = "UNWIND {rows} AS row MATCH (n:" + VERTEX_LABEL + " {id : row.id}) SET n += row.properties";
+
+    Map<String, Object> row = new HashMap<>();
+    row.put("id", id);
+    row.put("properties", Collections.singletonMap(key, value));
+
+    add(this.properties, statement, row);
+  }
+
+  /**
+   * Delete the edges with a label between two vertices.
+   *
+   * @param label  the edge label
+   * @param fromId the id of the source vertex
+   * @param toId   the id of the destination vertex
+   */
+  public void deleteEdge(String label, String fromId, String toId) {
+    String statement = "UNWIND {rows} AS row "
+        + "MATCH (f:" + VERTEX_LABEL + " {id : row.fromId})-[e:" + label + "]->(t:" + VERTEX_LABEL + " {id : row.toId}) DELETE e";
+
+    add(this.deletedEdges, statement, endpoints(fromId, toId));
+  }
+
+  /**
+   * Add a new edge to the graph.
+   *
+   * @param label      the edge label
+   * @param fromId     the id of the source vertex
+   * @param toId       the id of the destination vertex
+   * @param attributes the edge's attributes
+   */
+  public void addEdge(String label, String fromId, String toId, List<DbDataContainer> attributes) {
+    String statement = "UNWIND {rows} AS row "
+        + "MATCH (f:" + VERTEX_LABEL + " {id : row.fromId}) MATCH (t:" + VERTEX_LABEL + " {id : row.toId}) "
+        + "CREATE (f)-[e:" + label + "]->(t) SET e = row.edge";
+
+    Map<String, Object> row = endpoints(fromId, toId);
+    row.put("edge", toMap(attributes));
+
+    add(this.edges, statement, row);
+  }
+
+  public boolean isEmpty() {
+    return this.vertices.isEmpty() && this.childVertices.isEmpty() && this.properties.isEmpty()
+        && this.deletedEdges.isEmpty() && this.edges.isEmpty();
+  }
+
+  /**
+   * @return each statement and its rows, in the order they have to run
+   */
+  Map<String, List<Map<String, Object>>> getStatements() {
+    Map<String, List<Map<String, Object>>> statements = new LinkedHashMap<>();
+    statements.putAll(this.vertices);
+    statements.putAll(this.childVertices);
+    statements.putAll(this.properties);
+    statements.putAll(this.deletedEdges);
+    statements.putAll(this.edges);
+
+    return statements;
+  }
+
+  private static void add(Map<String, List<Map<String, Object>>> phase, String statement, Map<String, Object> row) {
+    phase.computeIfAbsent(statement, s -> new ArrayList<>()).add(row);
+  }
+
+  private static Map<String, Object> endpoints(String fromId, String toId) {
+    Map<String, Object> row = new HashMap<>();
+    row.put("fromId", fromId);
+    row.put("toId", toId);
+
+    return row;
+  }
+
+  private static Map<String, Object> toMap(List<DbDataContainer> values) {
+    Map<String, Object> map = new HashMap<>();
+    for (DbDataContainer container : values) {
+      if (container.getValue() != null) {
+        map.put(container.getField(), container.getValue());
+      }
+    }
+
+    return map;
+  }
+}
@@ -14,6 +14,7 @@
 
 package edu.berkeley.ground.db;
 
+import edu.berkeley.ground.api.models.ClosureBounds;
 import edu.berkeley.ground.exceptions.EmptyResultException;
 import edu.berkeley.ground.exceptions.GroundDBException;
 import edu.berkeley.ground.exceptions.GroundException;
@@ -25,18 +26,75 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 public class Neo4jClient implements DBClient {
   private static final Logger LOGGER = LoggerFactory.getLogger(Neo4jClient.class);
 
+  /**
+   * Every vertex with an id also carries this label, so that lookups by id for which the type is
+   * not known are still index seeks.
+   */
+  public static final String VERTEX_LABEL = "GroundVertex";
+
+  private static final String[] ITEM_LABELS = {"Node", "GroundEdge", "Graph", "Structure", "LineageEdges"};
+  private static final String[] VERSION_LABELS = {"NodeVersion", "EdgeVersion", "GraphVersion", "StructureVersion", "LineageEdgeVersions"};
+
   private Driver driver;
 
   public Neo4jClient(String host, String username, String password) {
     this.driver = GraphDatabase.driver("bolt://" + host, AuthTokens.basic(username, password));
+
+    this.createSchema();
+  }
+
+  /**
+   * Create the indexes and unique constraints used by the lookups in Neo4jConnection. Neo4j
+   * ignores requests for indexes and constraints that already exist, so this is safe to run every
+   * time the client starts. A unique constraint is backed by an index, so properties that have
+   * one don't get a separate index.
+   */
+  private void createSchema() {
+    List<String> statements = new ArrayList<>();
+
+    statements.add(uniqueConstraint(VERTEX_LABEL, "id"));
+    statements.add(index(VERTEX_LABEL, "node_id"));
+
+    for (String label : ITEM_LABELS) {
+      statements.add(uniqueConstraint(label, "id"));
+      statements.add(uniqueConstraint(label, "name"));
+    }
+
+    for (String label : VERSION_LABELS) {
+      statements.add(uniqueConstraint(label, "id"));
+    }
+
+    statements.add(index("NodeVersion", "node_id"));
+    statements.add(index("EdgeVersion", "edge_id"));
+    statements.add(index("Tag", "tkey"));
+
+    // schema changes can't share a transaction with each other, so each runs on its own
+    try (Session session = this.driver.session()) {
+      for (String statement : statements) {
+        session.run(statement).consume();
+      }
+    }
+
+    LOGGER.info("Created Neo4j indexes and constraints.");
+  }
+
+  private static String uniqueConstraint(String label, String property) {
+    return "CREATE CONSTRAINT ON (v:" + label + ") ASSERT v." + property + " IS UNIQUE";
+  }
+
+  private static String index(String label, String property) {
+    return "CREATE INDEX ON :" + label + "(" + property + ")";
   }
 
   public Neo4jConnection getConnection() {
@@ -52,25 +110,24 @@ public class Neo4jClient implements DBClient {
       this.session = session;
     }
 
-    private String addValuesToStatement(String statement, List<DbDataContainer> values) {
+    /**
+     * Append the non-null values as a list of properties, e.g. "id : {v_id}, name : {v_name}",
+     * and add the values to parameters. Values are always passed as parameters, so that the text
+     * of a statement only depends on its shape, and Neo4j can reuse its plan.
+     *
+     * @param statement  the statement to append to
+     * @param values     the properties and their values
+     * @param prefix     the prefix of the parameter names, unique within the statement
+     * @param parameters the statement's parameters
+     */
+    private String addValuesToStatement(String statement, List<DbDataContainer> values, String prefix, Map<String, Object> parameters) {
       int count = 0;
       for (DbDataContainer container : values) {
         if (container.getValue() != null) {
-          statement += container.getField() + " : ";
-
-          switch (container.getGroundType()) {
-            case STRING:
-              statement += "'" + container.getValue().toString() + "'";
-              break;
-            case INTEGER:
-              statement += (int) container.getValue();
-              break;
-            case BOOLEAN:
-              statement += container.getValue();
-              break;
-          }
+          String parameter = prefix + "_" + container.getField();
 
-          statement += ", ";
+          statement += container.getField() + " : {" + parameter + "}, ";
+          parameters.put(parameter, container.getValue());
           count++;
         }
       }
@@ -89,13 +146,13 @@ public class Neo4jClient implements DBClient {
      * @param attributes the vertex's attributes
      */
     public void addVertex(String label, List<DbDataContainer> attributes) {
-      String insert = "CREATE (: " + label + " {";
-
-      insert = this.addValuesToStatement(insert, attributes);
+      Map<String, Object> parameters = new HashMap<>();
 
+      String insert = "CREATE (:" + VERTEX_LABEL + ":" + label + " {";
+      insert = this.addValuesToStatement(insert, attributes, "v", parameters);
       insert += "})";
 
-      this.transaction.run(insert);
+      this.transaction.run(insert, parameters);
     }
 
     /**
@@ -107,15 +164,35 @@ public class Neo4jClient implements DBClient {
      * @param attributes the edge's attributes
      */
     public void addEdge(String label, String fromId, String toId, List<DbDataContainer> attributes) {
-      String insert = "MATCH (f" + "{id : '" + fromId + "' })";
-      insert += "MATCH (t" + "{id : '" + toId + "' })";
-      insert += "CREATE (f)-[:" + label + "{";
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("fromId", fromId);
+      parameters.put("toId", toId);
+
+      String insert = "MATCH (f:" + VERTEX_LABEL + " {id : {fromId}}) ";
+      insert += "MATCH (t:" + VERTEX_LABEL + " {id : {toId}}) ";
+      insert += "CREATE (f)-[:" + label + " {";
+      insert = this.addValuesToStatement(insert, attributes, "e", parameters);
+      insert += "}]->(t)";
 
-      insert = this.addValuesToStatement(insert, attributes);
+      this.transaction.run(insert, parameters);
+    }
 
-      insert += "}]->(t)";
+    /**
+     * Delete the edges with a label between two vertices.
+     *
+     * @param label  the edge label
+     * @param fromId the id of the source vertex
+     * @param toId   the id of the destination vertex
+     */
+    public void deleteEdge(String label, String fromId, String toId) {
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("fromId", fromId);
+      parameters.put("toId", toId);
+
+      String delete = "MATCH (f:" + VERTEX_LABEL + " {id : {fromId}})-[e:" + label + "]->(t:" + VERTEX_LABEL + " {id : {toId}}) ";
+      delete += "DELETE e";
 
-      this.transaction.run(insert);
+      this.transaction.run(delete, parameters);
     }
 
     /**
@@ -128,41 +205,55 @@ public class Neo4jClient implements DBClient {
      * @param edgeAttributes the edge's attributes
      */
     public void addVertexAndEdge(String label, List<DbDataContainer> attributes, String edgeLabel, String fromId, List<DbDataContainer> edgeAttributes) {
-      String insert = "MATCH (f {id: '" + fromId + "'})";
-      insert += "CREATE (t: " + label + "{";
-
-      insert = this.addValuesToStatement(insert, attributes);
-      insert += "})";
-      insert += "CREATE (f)-[e: " + edgeLabel + "{";
-
-      insert = this.addValuesToStatement(insert, edgeAttributes);
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("fromId", fromId);
+
+      String insert = "MATCH (f:" + VERTEX_LABEL + " {id : {fromId}}) ";
+      insert += "CREATE (t:" + label + " {";
+      insert = this.addValuesToStatement(insert, attributes, "v", parameters);
+      insert += "}) ";
+      insert += "CREATE (f)-[e: " + edgeLabel + " {";
+      insert = this.addValuesToStatement(insert, edgeAttributes, "e", parameters);
       insert += "}]->(t)";
 
-      this.transaction.run(insert);
+      this.transaction.run(insert, parameters);
+    }
+
+    /**
+     * Run the writes collected in a batch, with one statement for each kind of write.
+     *
+     * @param batch the writes to run
+     */
+    public void execute(Neo4jBatch batch) {
+      for (Map.Entry<String, List<Map<String, Object>>> statement : batch.getStatements().entrySet()) {
+        this.transaction.run(statement.getKey(), Collections.singletonMap("rows", statement.getValue()));
+      }
     }
 
     /**
-     * Retrieve a vertex.
+     * Retrieve a vertex of any type.
      *
      * @param attributes the set of attributes to filter
      * @return the Record of the vertex
      */
     public Record getVertex(List<DbDataContainer> attributes) throws EmptyResultException {
-      return this.getVertex(null, attributes);
+      return this.getVertex(VERTEX_LABEL, attributes);
     }
 
     /**
-     * Get all vertices with a certain set of attributes.
+     * Get all vertices with a particular label and a certain set of attributes.
      *
+     * @param label      the vertex label
      * @param attributes the attributes to filter by
      */
-    public List<String> getVerticesByAttributes(List<DbDataContainer> attributes) {
-      String query = "MATCH (f {";
+    public List<String> getVerticesByAttributes(String label, List<DbDataContainer> attributes) {
+      Map<String, Object> parameters = new HashMap<>();
 
-      query = this.addValuesToStatement(query, attributes);
+      String query = "MATCH (f:" + label + " {";
+      query = this.addValuesToStatement(query, attributes, "v", parameters);
       query += "}) return f";
 
-      StatementResult queryResult = this.session.run(query);
+      StatementResult queryResult = this.session.run(query, parameters);
 
       List<String> result = new ArrayList<>();
       while (queryResult.hasNext()) {
@@ -180,22 +271,18 @@ public class Neo4jClient implements DBClient {
      * @return the Record with the vertex
      */
     public Record getVertex(String label, List<DbDataContainer> attributes) throws EmptyResultException {
-      String query;
-      if (label == null) {
-        query = "MATCH (v {";
-      } else {
-        query = "MATCH (v:" + label + "{";
-      }
+      Map<String, Object> parameters = new HashMap<>();
 
-      query = this.addValuesToStatement(query, attributes);
+      String query = "MATCH (v:" + label + " {";
+      query = this.addValuesToStatement(query, attributes, "v", parameters);
       query += "}) RETURN v";
-      StatementResult result = this.transaction.run(query);
+      StatementResult result = this.transaction.run(query, parameters);
 
       if (result.hasNext()) {
         return result.next();
       }
 
-      throw new EmptyResultException("No results found for query: " + query);
+      throw new EmptyResultException("No results found for query: " + query + " " + parameters);
     }
 
     /**
@@ -206,12 +293,13 @@ public class Neo4jClient implements DBClient {
      * @return the Neo4j Relationship for this edge
      */
     public Relationship getEdge(String label, List<DbDataContainer> attributes) throws EmptyResultException {
-      String query = "MATCH (v)-[e:" + label + "{";
+      Map<String, Object> parameters = new HashMap<>();
 
-      query = this.addValuesToStatement(query, attributes);
+      String query = "MATCH (v)-[e:" + label + " {";
+      query = this.addValuesToStatement(query, attributes, "e", parameters);
       query += "}]->(w) RETURN e";
 
-      StatementResult result = this.transaction.run(query);
+      StatementResult result = this.transaction.run(query, parameters);
 
       if (result.hasNext()) {
         Record r = result.next();
@@ -219,7 +307,7 @@ public class Neo4jClient implements DBClient {
         return r.get("e").asRelationship();
       }
 
-      throw new EmptyResultException("No results found for query: " + query);
+      throw new EmptyResultException("No results found for query: " + query + " " + parameters);
     }
 
     /**
@@ -231,20 +319,21 @@ public class Neo4jClient implements DBClient {
      * @return the list of valid edges
      */
     public List<Relationship> getDescendantEdgesByLabel(String startId, String label) {
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("startId", startId);
 
-      String query = "MATCH (a)-[e:" + label + "]-(b " +
-          "{node_id : '" + startId + "'}) WHERE a.id='" + startId +
-          "' OR a.node_id='" + startId + "' RETURN DISTINCT e";
+      String query = "MATCH (a)-[e:" + label + "]-(b:" + VERTEX_LABEL + " {node_id : {startId}}) "
+          + "WHERE a.id = {startId} OR a.node_id = {startId} RETURN DISTINCT e";
 
-      StatementResult result = this.transaction.run(query);
-      Set<Relationship> response = new HashSet<>();
+      // the query's DISTINCT already removes duplicates, so the records are converted as they arrive
+      StatementResult result = this.transaction.run(query, parameters);
+      List<Relationship> response = new ArrayList<>();
 
-      List<Record> resultList = result.list();
-      if (!resultList.isEmpty()) {
-        response.addAll(resultList.stream().map(r -> r.get("e").asRelationship()).collect(Collectors.toList()));
+      while (result.hasNext()) {
+        response.add(result.next().get("e").asRelationship());
       }
 
-      return new ArrayList<>(response);
+      return response;
     }
 
     /**
@@ -254,11 +343,15 @@ public class Neo4jClient implements DBClient {
      * @param id           the vertex to start from
      * @param edgeLabel    the edge label we are looking for
      * @param returnFields the list of fields we want to select
-     * @return a list of adjacent vertices related by edgeLabel
+     * @return the adjacent vertices related by edgeLabel, read lazily as the result is consumed,
+     * which has to happen before the transaction ends
      */
-    public List<Record> getAdjacentVerticesByEdgeLabel(String edgeLabel, String id, List<String> returnFields) {
-      String query = "MATCH (a {id: '" + id + "' })";
-      query += "MATCH (a)-[:" + edgeLabel + "]->(b)";
+    public StatementResult getAdjacentVerticesByEdgeLabel(String edgeLabel, String id, List<String> returnFields) {
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("id", id);
+
+      String query = "MATCH (a:" + VERTEX_LABEL + " {id : {id}}) ";
+      query += "MATCH (a)-[:" + edgeLabel + "]->(b) ";
       query += "RETURN ";
 
       int count = 0;
@@ -270,8 +363,7 @@ public class Neo4jClient implements DBClient {
         }
       }
 
-      StatementResult result = this.transaction.run(query);
-      return result.list();
+      return this.transaction.run(query, parameters);
     }
 
     public void commit() throws GroundDBException {
@@ -287,53 +379,117 @@ public class Neo4jClient implements DBClient {
     }
 
     public List<String> transitiveClosure(String nodeVersionId) throws GroundException {
-      String query = "MATCH (a: NodeVersion {id: '" + nodeVersionId + "'})-[:EdgeVersionConnection*]->(b)";
-      query += "RETURN b.id";
-
       List<String> result = new ArrayList<>();
-      List<Record> records = this.transaction.run(query).list();
-
-      records.forEach(record -> result.add(getStringFromValue((StringValue) record.get("b.id"))));
+      this.transitiveClosure(nodeVersionId, ClosureBounds.UNBOUNDED, result::add);
 
       return result;
     }
 
+    /**
+     * Pass the id of each node version reachable from a node version to consumer, level by level.
+     * Each level is one statement that expands the whole frontier; node versions that were already
+     * visited are dropped, so every node version is expanded once however many paths lead to it.
+     * The start is not marked as visited up front, so that it is returned if it is on a cycle.
+     *
+     * @param nodeVersionId the node version to start from
+     * @param bounds        the maximum depth, edge name filter, result limit and timeout
+     * @param consumer      receives the ids
+     */
+    public void transitiveClosure(String nodeVersionId, ClosureBounds bounds, Consumer<String> consumer) throws GroundException {
+      long deadline = bounds.getTimeout() > 0 ? System.currentTimeMillis() + bounds.getTimeout() : Long.MAX_VALUE;
+
+      String query = "UNWIND {frontier} AS frontierId MATCH (n:NodeVersion {id : frontierId})";
+      query += "-[:EdgeVersionConnection]->(e:EdgeVersion)-[:EdgeVersionConnection]->(m:NodeVersion) ";
+
+      Map<String, Object> parameters = new HashMap<>();
+      if (bounds.getEdgeNamePattern() != null) {
+        query += "WHERE e.edge_id =~ {edgeName} ";
+        // =~ has to match the whole id, so the pattern is grouped to keep an alternation inside it
+        parameters.put("edgeName", ".*(?:" + bounds.getEdgeNamePattern() + ").*");
+      }
+
+      query += "RETURN DISTINCT m.id";
+
+      Set<String> visited = new HashSet<>();
+      List<String> frontier = Collections.singletonList(nodeVersionId);
+      int count = 0;
+
+      for (int depth = 0; !frontier.isEmpty() && (bounds.getMaxDepth() <= 0 || depth < bounds.getMaxDepth()); depth++) {
+        parameters.put("frontier", frontier);
+        StatementResult result = this.transaction.run(query, parameters);
+
+        List<String> next = new ArrayList<>();
+        while (result.hasNext()) {
+          if (System.currentTimeMillis() > deadline) {
+            throw new GroundException("Transitive closure of " + nodeVersionId + " timed out after " + bounds.getTimeout() + " ms.");
+          }
+
+          String id = result.next().get("m.id").asString();
+          if (visited.add(id)) {
+            consumer.accept(id);
+            next.add(id);
+
+            if (bounds.getLimit() > 0 && ++count >= bounds.getLimit()) {
+              result.consume();
+              return;
+            }
+          }
+        }
+
+        frontier = next;
+      }
+    }
+
     /**
      * For a particular object, set a given attribute.
      *
      * @param id       the id of the object
      * @param key      the key of the attribute
      * @param value    the value of the attribute
-     * @param isString deteremines whether or not to encapsulate value in quotes
+     * @param isString determines whether value is stored as a string
      */
     public void setProperty(String id, String key, Object value, boolean isString) {
-      String insert = "MATCH (n {id: '" + id + "' })";
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("id", id);
+      parameters.put("value", isString ? value.toString() : value);
 
-      if (isString) {
-        insert += "set n." + key + " = '" + value.toString() + "'";
-      } else {
-        insert += "set n." + key + " = " + value.toString();
-      }
+      String insert = "MATCH (n:" + VERTEX_LABEL + " {id : {id}}) ";
+      insert += "SET n." + key + " = {value}";
 
-      this.transaction.run(insert);
+      this.transaction.run(insert, parameters);
     }
 
 
     public List<String> adjacentNodes(String nodeVersionId, String edgeNameRegex) throws GroundException {
-      String query = "MATCH (n: NodeVersion {id: '" + nodeVersionId + "'})";
-      query += "-[e: EdgeVersionConnection]->(evn: EdgeVersion) where evn.edge_id =~ '.*" + edgeNameRegex + ".*'";
-      query += "MATCH (evn)-[f: EdgeVersionConnection]->(dst)";
-      query += "return dst.id";
-
       List<String> result = new ArrayList<>();
-      List<Record> records = this.transaction.run(query).list();
-
-      records.forEach(record -> {
-        result.add(record.get("dst.id").asString());
-      });
+      this.adjacentNodes(nodeVersionId, edgeNameRegex, result::add);
 
       return result;
     }
+
+    /**
+     * Pass the id of each node version adjacent to a node version through an edge whose name
+     * matches edgeNameRegex to consumer, as the records arrive from the server.
+     *
+     * @param nodeVersionId the node version to start from
+     * @param edgeNameRegex the pattern the edge names have to contain
+     * @param consumer      receives the ids
+     */
+    public void adjacentNodes(String nodeVersionId, String edgeNameRegex, Consumer<String> consumer) throws GroundException {
+      Map<String, Object> parameters = new HashMap<>();
+      parameters.put("id", nodeVersionId);
+      parameters.put("edgeName", ".*" + edgeNameRegex + ".*");
+
+      String query = "MATCH (n: NodeVersion {id : {id}})";
+      query += "-[e: EdgeVersionConnection]->(evn: EdgeVersion) WHERE evn.edge_id =~ {edgeName} ";
+      query += "MATCH (evn)-[f: EdgeVersionConnection]->(dst) ";
+      query += "RETURN dst.id";
+
+      StatementResult result = this.transaction.run(query, parameters);
+      while (result.hasNext()) {
+        consumer.accept(result.next().get("dst.id").asString());
+      }
+    }
   }
 
   public static String getStringFromValue(StringValue value) {
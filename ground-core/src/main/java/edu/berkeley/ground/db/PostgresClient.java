@@ -14,46 +14,149 @@
 
 package edu.berkeley.ground.db;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import edu.berkeley.ground.api.models.ClosureBounds;
 import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.exceptions.EmptyResultException;
 import edu.berkeley.ground.exceptions.GroundDBException;
 import edu.berkeley.ground.exceptions.GroundException;
+import io.dropwizard.lifecycle.Managed;
 
+import org.apache.tomcat.jdbc.pool.DataSource;
+import org.apache.tomcat.jdbc.pool.PoolProperties;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
-public class PostgresClient implements DBClient {
+public class PostgresClient implements DBClient, Managed {
   private static final Logger LOGGER = LoggerFactory.getLogger(PostgresClient.class);
 
-  private static final String JDBCString = "jdbc:postgresql://%s:%d/%s?stringtype=unspecified";
-  private String connectionString;
-  private String username;
-  private String password;
+  private static final String JDBCString = "jdbc:postgresql://%s:%d/%s?stringtype=unspecified&prepareThreshold=1";
+
+  private static final int DEFAULT_MAX_CONNECTIONS = 32;
+  private static final int DEFAULT_MIN_IDLE_CONNECTIONS = 4;
+  private static final int DEFAULT_CONNECTION_TIMEOUT = 30000;
+  private static final int DEFAULT_STATEMENT_CACHE_SIZE = 256;
+
+  // the number of characters of COPY data buffered before they are sent to the server
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  // the number of version history rows fetched from the cursor at a time
+  private static final int VERSION_HISTORY_FETCH_SIZE = 1000;
+
+  // the number of transitive closure rows fetched from the cursor at a time
+  private static final int CLOSURE_FETCH_SIZE = 1000;
+
+  // the SQLSTATE of a statement cancelled by statement_timeout
+  private static final String QUERY_CANCELED = "57014";
+
+  // generated SQL text, keyed by the shape of the statement
+  private static final Map<StatementKey, String> STATEMENT_CACHE = new ConcurrentHashMap<>();
+
+  // stand in for the projection of deletes and rich version selects in STATEMENT_CACHE
+  private static final List<String> DELETE_PROJECTION = Collections.singletonList("delete");
+  private static final List<String> RICH_VERSION_PROJECTION = Collections.singletonList("rich version");
+
+  private DataSource dataSource;
+  private Timer connectionWaitTimer;
 
   public PostgresClient(String host, int port, String dbName, String username, String password) {
-    connectionString = String.format(PostgresClient.JDBCString, host, port, dbName);
-    this.username = username;
-    this.password = password;
+    this(host, port, dbName, username, password, DEFAULT_MAX_CONNECTIONS,
+        DEFAULT_MIN_IDLE_CONNECTIONS, DEFAULT_CONNECTION_TIMEOUT, DEFAULT_STATEMENT_CACHE_SIZE,
+        new MetricRegistry());
+  }
+
+  /**
+   * Create a client backed by a bounded pool of JDBC connections.
+   *
+   * @param maxConnections     the maximum number of open connections
+   * @param minIdleConnections the number of idle connections to keep open
+   * @param connectionTimeout  the time in milliseconds to wait for a free connection
+   * @param statementCacheSize the number of prepared statements cached per connection, or 0 to
+   *                           disable the cache
+   * @param metricRegistry     the registry to publish pool metrics to
+   */
+  public PostgresClient(String host, int port, String dbName, String username, String password,
+                        int maxConnections, int minIdleConnections, int connectionTimeout,
+                        int statementCacheSize, MetricRegistry metricRegistry) {
+    PoolProperties properties = new PoolProperties();
+    properties.setUrl(String.format(PostgresClient.JDBCString, host, port, dbName));
+    properties.setDriverClassName("org.postgresql.Driver");
+    properties.setUsername(username);
+    properties.setPassword(password);
+
+    properties.setMaxActive(maxConnections);
+    properties.setMaxIdle(maxConnections);
+    properties.setMinIdle(Math.min(minIdleConnections, maxConnections));
+    properties.setInitialSize(Math.min(minIdleConnections, maxConnections));
+    properties.setMaxWait(connectionTimeout);
+
+    // every PostgresConnection runs in its own transaction, so never hand out a connection with
+    // work left over from a previous borrower
+    properties.setDefaultAutoCommit(false);
+    properties.setRollbackOnReturn(true);
+    properties.setTestOnBorrow(true);
+    properties.setValidationQuery("select 1");
+    properties.setValidationInterval(30000);
+
+    if (statementCacheSize > 0) {
+      // keep prepared statements open across borrows of the same physical connection; the driver
+      // then reuses their server-side plans instead of re-parsing every insert and select
+      properties.setJdbcInterceptors("StatementCache(prepared=true,callable=false,max=" + statementCacheSize + ")");
+    }
+
+    this.dataSource = new DataSource(properties);
+
+    this.connectionWaitTimer = metricRegistry.timer(MetricRegistry.name(PostgresClient.class, "pool", "wait"));
+    metricRegistry.register(MetricRegistry.name(PostgresClient.class, "pool", "active"), (Gauge<Integer>) this.dataSource::getActive);
+    metricRegistry.register(MetricRegistry.name(PostgresClient.class, "pool", "idle"), (Gauge<Integer>) this.dataSource::getIdle);
+    metricRegistry.register(MetricRegistry.name(PostgresClient.class, "pool", "waiting"), (Gauge<Integer>) this.dataSource::getWaitCount);
   }
 
   public PostgresConnection getConnection() throws GroundDBException {
-    try {
-      return new PostgresConnection(DriverManager.getConnection(connectionString, username, password));
+    try (Timer.Context ignored = this.connectionWaitTimer.time()) {
+      return new PostgresConnection(this.dataSource.getConnection());
     } catch (SQLException e) {
       throw new GroundDBException(e);
     }
   }
 
+  @Override
+  public void start() throws Exception {
+    // open the initial connections eagerly so that the first requests don't pay for them
+    this.dataSource.createPool();
+  }
+
+  @Override
+  public void stop() throws Exception {
+    this.dataSource.close();
+  }
+
   public class PostgresConnection extends GroundDBConnection {
     private Connection connection;
 
+    // statements opened in this transaction; closing them hands them back to the statement cache
+    private List<Statement> openStatements;
+
     public PostgresConnection(Connection connection) throws SQLException {
       this.connection = connection;
       this.connection.setAutoCommit(false);
+      this.openStatements = new ArrayList<>();
     }
 
 
@@ -64,19 +167,10 @@ public class PostgresClient implements DBClient {
      * @param insertValues the values to put into table
      */
     public void insert(String table, List<DbDataContainer> insertValues) throws GroundDBException {
-      String insertString = "insert into " + table + "(";
-      String valuesString = "values (";
-
-      for (DbDataContainer container : insertValues) {
-        insertString += container.getField() + ", ";
-        valuesString += "?, ";
-      }
-
-      insertString = insertString.substring(0, insertString.length() - 2) + ")";
-      valuesString = valuesString.substring(0, valuesString.length() - 2) + ")";
+      String sql = PostgresClient.getInsertStatement(table, insertValues);
 
       try {
-        PreparedStatement preparedStatement = this.connection.prepareStatement(insertString + valuesString + ";");
+        PreparedStatement preparedStatement = this.prepareStatement(sql);
 
         int index = 1;
         for (DbDataContainer container : insertValues) {
@@ -97,35 +191,135 @@ public class PostgresClient implements DBClient {
     }
 
     /**
-     * Retrieve rows based on a set of predicates.
+     * Insert many rows into table in a single batch. Every row must set the same columns in the
+     * same order.
      *
-     * @param table               the table to query
-     * @param projection          the set of columns to retrieve
-     * @param predicatesAndValues the predicates
+     * @param table the table to update
+     * @param rows  the values for each row to put into table
      */
-    public QueryResults equalitySelect(String table, List<String> projection,
-                                       List<DbDataContainer> predicatesAndValues)
-        throws GroundDBException, EmptyResultException {
-      String select = "select ";
+    public void insertBatch(String table, List<List<DbDataContainer>> rows) throws GroundDBException {
+      if (rows.isEmpty()) {
+        return;
+      }
+
+      String sql = PostgresClient.getInsertStatement(table, rows.get(0));
+
+      try {
+        PreparedStatement preparedStatement = this.prepareStatement(sql);
+
+        for (List<DbDataContainer> row : rows) {
+          int index = 1;
+          for (DbDataContainer container : row) {
+            PostgresClient.setValue(preparedStatement, container.getValue(), container.getGroundType(), index);
+
+            index++;
+          }
+
+          preparedStatement.addBatch();
+        }
+
+        LOGGER.info("Executing batch update of " + rows.size() + " rows: " + sql);
+
+        preparedStatement.executeBatch();
+      } catch (SQLException e) {
+        LOGGER.error("Unexpected error in database insertion: " + e.getMessage());
+
+        throw new GroundDBException(e.getClass().toString() + ": " + e.getMessage());
+      }
+    }
+
+    /**
+     * Stream rows into table with COPY. This is much cheaper than inserts for very large loads,
+     * since the rows are sent as one data stream instead of one statement each.
+     *
+     * @param table   the table to update
+     * @param columns the columns that each row sets, in order
+     * @param rows    the values for each row; null values are written as NULL
+     */
+    public void copyIn(String table, List<String> columns, Iterable<List<String>> rows) throws GroundDBException {
+      String sql = "copy " + table + " (" + String.join(", ", columns) + ") from stdin";
+      LOGGER.info("Executing copy: " + sql + ".");
 
-      for (String item : projection) {
-        select += item + ", ";
+      CopyIn copyIn = null;
+      try {
+        copyIn = this.connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+
+        StringBuilder buffer = new StringBuilder();
+        for (List<String> row : rows) {
+          for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+              buffer.append('\t');
+            }
+
+            PostgresClient.appendCopyValue(buffer, row.get(i));
+          }
+          buffer.append('\n');
+
+          if (buffer.length() >= COPY_BUFFER_SIZE) {
+            PostgresClient.writeToCopy(copyIn, buffer);
+          }
+        }
+
+        PostgresClient.writeToCopy(copyIn, buffer);
+        copyIn.endCopy();
+      } catch (SQLException e) {
+        LOGGER.error("Unexpected error in database copy: " + e.getMessage());
+
+        throw new GroundDBException(e.getClass().toString() + ": " + e.getMessage());
+      } finally {
+        if (copyIn != null && copyIn.isActive()) {
+          try {
+            copyIn.cancelCopy();
+          } catch (SQLException e) {
+            LOGGER.error("Unable to cancel copy: " + e.getMessage());
+          }
+        }
       }
+    }
 
-      select = select.substring(0, select.length() - 2) + " from " + table;
+    /**
+     * Delete the rows of table that match a set of predicates.
+     *
+     * @param table               the table to update
+     * @param predicatesAndValues the predicates
+     */
+    public void delete(String table, List<DbDataContainer> predicatesAndValues) throws GroundDBException {
+      String sql = PostgresClient.getDeleteStatement(table, predicatesAndValues);
 
-      if (predicatesAndValues.size() > 0) {
-        select += " where ";
+      try {
+        PreparedStatement preparedStatement = this.prepareStatement(sql);
 
+        int index = 1;
         for (DbDataContainer container : predicatesAndValues) {
-          select += container.getField() + " = ? and ";
+          PostgresClient.setValue(preparedStatement, container.getValue(), container.getGroundType(), index);
+
+          index++;
         }
 
-        select = select.substring(0, select.length() - 4);
+        LOGGER.info("Executing update: " + preparedStatement.toString() + ".");
+
+        preparedStatement.executeUpdate();
+      } catch (SQLException e) {
+        LOGGER.error("Unexpected error in database deletion: " + e.getMessage());
+
+        throw new GroundDBException(e.getClass().toString() + ": " + e.getMessage());
       }
+    }
+
+    /**
+     * Retrieve rows based on a set of predicates.
+     *
+     * @param table               the table to query
+     * @param projection          the set of columns to retrieve
+     * @param predicatesAndValues the predicates
+     */
+    public QueryResults equalitySelect(String table, List<String> projection,
+                                       List<DbDataContainer> predicatesAndValues)
+        throws GroundDBException, EmptyResultException {
+      String sql = PostgresClient.getSelectStatement(table, projection, predicatesAndValues);
 
       try {
-        PreparedStatement preparedStatement = this.connection.prepareStatement(select + ";");
+        PreparedStatement preparedStatement = this.prepareStatement(sql);
 
         int index = 1;
         for (DbDataContainer container : predicatesAndValues) {
@@ -151,34 +345,185 @@ public class PostgresClient implements DBClient {
       }
     }
 
+    /**
+     * Retrieve a rich version from table in a single round trip. The row is joined with its
+     * RichVersions row and carries its tags (a json array of [key, value, type] triples) and
+     * external parameters (a json object) in the "tags" and "parameters" columns.
+     *
+     * @param table the table for the version's type (e.g., NodeVersions)
+     * @param id the id of the version
+     * @return the results, positioned on the version's row
+     */
+    public QueryResults richVersionSelect(String table, String id) throws GroundDBException, EmptyResultException {
+      return this.richVersionSelect(table, id, null, null, null);
+    }
+
+    /**
+     * Retrieve a rich version as above, also aggregating the listColumn values of the rows in
+     * listTable whose listKey is the version's id into a json array in the "list" column.
+     *
+     * @param table the table for the version's type (e.g., GraphVersions)
+     * @param id the id of the version
+     * @param listTable the table with the version's list-valued field
+     * @param listKey the column of listTable that references the version
+     * @param listColumn the column of listTable to aggregate
+     * @return the results, positioned on the version's row
+     */
+    public QueryResults richVersionSelect(String table, String id, String listTable, String listKey, String listColumn)
+        throws GroundDBException, EmptyResultException {
+      String sql = PostgresClient.getRichVersionStatement(table, listTable, listKey, listColumn);
+
+      try {
+        PreparedStatement preparedStatement = this.prepareStatement(sql);
+        preparedStatement.setString(1, id);
+
+        LOGGER.info("Executing query: " + preparedStatement.toString() + ".");
+
+        ResultSet resultSet = preparedStatement.executeQuery();
+        if (!resultSet.next()) {
+          throw new EmptyResultException("No results found for query: " + preparedStatement.toString());
+        }
+
+        return new PostgresResults(resultSet);
+      } catch (SQLException e) {
+        LOGGER.error("Unexpected error in database query: " + e.getMessage());
+
+        throw new GroundDBException(e.getMessage());
+      }
+    }
+
+    /**
+     * Retrieve the edges of an item's version history in one query by joining
+     * VersionHistoryDAGs with VersionSuccessors. Rows are fetched from a server-side cursor in
+     * chunks, so very long histories are not materialized in a single response.
+     *
+     * @param itemId the id of the item
+     * @return the results (successor_id, vfrom, vto), positioned on the first edge
+     */
+    public QueryResults versionHistorySelect(String itemId) throws GroundDBException, EmptyResultException {
+      String sql = "select vs.successor_id, vs.vfrom, vs.vto from VersionHistoryDAGs d "
+          + "join VersionSuccessors vs on vs.successor_id = d.successor_id where d.item_id = ?;";
+
+      try {
+        PreparedStatement preparedStatement = this.prepareStatement(sql);
+        preparedStatement.setString(1, itemId);
+
+        // the connection is never in autocommit mode, so this makes the driver use a cursor
+        preparedStatement.setFetchSize(VERSION_HISTORY_FETCH_SIZE);
+
+        LOGGER.info("Executing query: " + preparedStatement.toString() + ".");
+
+        ResultSet resultSet = preparedStatement.executeQuery();
+        if (!resultSet.next()) {
+          throw new EmptyResultException("No results found for query: " + preparedStatement.toString());
+        }
+
+        return new PostgresResults(resultSet);
+      } catch (SQLException e) {
+        LOGGER.error("Unexpected error in database query: " + e.getMessage());
+
+        throw new GroundDBException(e.getMessage());
+      }
+    }
+
+    /**
+     * Prepare a statement on this connection. The statement stays open until the transaction
+     * ends, since results may still be read from it.
+     *
+     * @param sql the statement text
+     * @return the prepared statement
+     */
+    private PreparedStatement prepareStatement(String sql) throws SQLException {
+      PreparedStatement preparedStatement = this.connection.prepareStatement(sql);
+      this.openStatements.add(preparedStatement);
+
+      return preparedStatement;
+    }
+
+    private void closeStatements() throws SQLException {
+      for (Statement statement : this.openStatements) {
+        statement.close();
+      }
+
+      this.openStatements.clear();
+    }
+
     public List<String> transitiveClosure(String nodeVersionId) throws GroundException {
+      List<String> result = new ArrayList<>();
+      this.transitiveClosure(nodeVersionId, ClosureBounds.UNBOUNDED, result::add);
+
+      return result;
+    }
+
+    /**
+     * Pass the id of each node version reachable from a node version to consumer, as the rows are
+     * read from the cursor.
+     *
+     * The driver fetches each batch of the cursor with a separate Execute, and the server restarts
+     * statement_timeout for each one, so the timeout set on the server only bounds a single batch.
+     * The timeout of the whole closure, including the time consumer takes, is enforced here.
+     *
+     * @param nodeVersionId the node version to start from
+     * @param bounds        the maximum depth, edge name filter, result limit and timeout
+     * @param consumer      receives the ids
+     */
+    public void transitiveClosure(String nodeVersionId, ClosureBounds bounds, Consumer<String> consumer) throws GroundException {
+      long deadline = bounds.getTimeout() > 0 ? System.currentTimeMillis() + bounds.getTimeout() : Long.MAX_VALUE;
+
       try {
-        // recursive query implementation
-                /*
-                PreparedStatement statement = this.connection.prepareStatement("with recursive paths(vfrom, vto) as (\n" +
-                                                    "    (select endpoint_one, endpoint_two from edgeversions where endpoint_one = ?)\n" +
-                                                    "    union\n" +
-                                                    "    (select p.vfrom, ev.endpoint_two\n" +
-                                                    "    from paths p, edgeversions ev\n" +
-                                                    "    where p.vto = ev.endpoint_one)\n" +
-                                                    ") select vto from paths;"); */
-
-        PreparedStatement statement = this.connection.prepareStatement("select reachable(?);");
-        statement.setString(1, nodeVersionId);
+        if (bounds.getTimeout() > 0) {
+          // the server cancels a batch that runs too long; the setting only lasts until the
+          // transaction ends
+          PreparedStatement timeout = this.prepareStatement("select set_config('statement_timeout', ?, true);");
+          timeout.setString(1, String.valueOf(bounds.getTimeout()));
+          timeout.execute();
+        }
 
-        ResultSet resultSet = statement.executeQuery();
+        String edgeNamePattern = bounds.getEdgeNamePattern();
+        PreparedStatement statement = this.prepareStatement(getClosureStatement(bounds.getMaxDepth() > 0,
+            edgeNamePattern != null, bounds.getLimit() > 0));
 
-        List<String> result = new ArrayList<>();
-        while (resultSet.next()) {
-          result.add(resultSet.getString(1));
+        int index = 1;
+        statement.setString(index++, nodeVersionId);
+        if (edgeNamePattern != null) {
+          statement.setString(index++, edgeNamePattern);
+          statement.setString(index++, edgeNamePattern);
         }
 
-        return result;
+        if (bounds.getMaxDepth() > 0) {
+          statement.setInt(index++, bounds.getMaxDepth());
+        }
+
+        if (bounds.getLimit() > 0) {
+          statement.setInt(index, bounds.getLimit());
+        }
+
+        // the connection is never in autocommit mode, so this makes the driver use a cursor
+        statement.setFetchSize(CLOSURE_FETCH_SIZE);
+
+        ResultSet resultSet = statement.executeQuery();
+        while (resultSet.next()) {
+          if (System.currentTimeMillis() > deadline) {
+            // closing the result set closes the cursor, so the server stops computing the closure
+            resultSet.close();
+            throw new GroundException(this.closureTimeoutMessage(nodeVersionId, bounds));
+          }
+
+          consumer.accept(resultSet.getString(1));
+        }
       } catch (SQLException e) {
+        if (QUERY_CANCELED.equals(e.getSQLState())) {
+          throw new GroundException(this.closureTimeoutMessage(nodeVersionId, bounds));
+        }
+
         throw new GroundException(e);
       }
     }
 
+    private String closureTimeoutMessage(String nodeVersionId, ClosureBounds bounds) {
+      return "Transitive closure of " + nodeVersionId + " timed out after " + bounds.getTimeout() + " ms.";
+    }
+
     public List<String> adjacentNodes(String nodeVersionId, String edgeNameRegex) throws GroundException {
       String query = "select endpoint_two from EdgeVersions ev where ev.endpoint_one = ?";
       query += " and ev.edge_id like ?;";
@@ -186,7 +531,7 @@ public class PostgresClient implements DBClient {
       edgeNameRegex = '%' + edgeNameRegex + '%';
 
       try {
-        PreparedStatement statement = this.connection.prepareStatement(query);
+        PreparedStatement statement = this.prepareStatement(query);
         statement.setString(1, nodeVersionId);
         statement.setString(2, edgeNameRegex);
 
@@ -205,6 +550,7 @@ public class PostgresClient implements DBClient {
 
     public void commit() throws GroundDBException {
       try {
+        this.closeStatements();
         this.connection.commit();
         this.connection.close();
       } catch (SQLException e) {
@@ -214,6 +560,7 @@ public class PostgresClient implements DBClient {
 
     public void abort() throws GroundDBException {
       try {
+        this.closeStatements();
         this.connection.rollback();
         this.connection.close();
       } catch (SQLException e) {
@@ -222,6 +569,179 @@ public class PostgresClient implements DBClient {
     }
   }
 
+  private static void appendCopyValue(StringBuilder buffer, String value) {
+    if (value == null) {
+      buffer.append("\\N");
+      return;
+    }
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+
+      switch (c) {
+        case '\\':
+          buffer.append("\\\\");
+          break;
+        case '\t':
+          buffer.append("\\t");
+          break;
+        case '\n':
+          buffer.append("\\n");
+          break;
+        case '\r':
+          buffer.append("\\r");
+          break;
+        default:
+          buffer.append(c);
+      }
+    }
+  }
+
+  private static void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+
+    buffer.setLength(0);
+  }
+
+  /**
+   * Build the recursive query for a transitive closure. Without a depth bound, the recursion only
+   * carries node version ids, so UNION drops every node version that was already reached and the
+   * query ends even if the graph has cycles. With a depth bound, the depth is carried as well; the
+   * bound ends the recursion, and the outer query removes duplicates. Both sides of the recursion
+   * look edges up by endpoint_one, using the EdgeVersions(endpoint_one, endpoint_two) index.
+   *
+   * The parameters are the start id, the edge name regex twice if filtered, the maximum depth if
+   * bounded, and the limit if limited.
+   */
+  static String getClosureStatement(boolean boundedDepth, boolean filtered, boolean limited) {
+    String edgeFilter = filtered ? " and ev.edge_id ~ ?" : "";
+
+    StringBuilder query = new StringBuilder("with recursive closure(id");
+    query.append(boundedDepth ? ", depth) as (" : ") as (");
+
+    query.append("select ev.endpoint_two").append(boundedDepth ? ", 1" : "");
+    query.append(" from EdgeVersions ev where ev.endpoint_one = ?").append(edgeFilter);
+
+    query.append(" union select ev.endpoint_two").append(boundedDepth ? ", c.depth + 1" : "");
+    query.append(" from closure c join EdgeVersions ev on ev.endpoint_one = c.id").append(edgeFilter);
+    query.append(boundedDepth ? " where c.depth < ?" : "");
+
+    query.append(") select ").append(boundedDepth ? "distinct " : "").append("id from closure");
+    query.append(limited ? " limit ?" : "");
+
+    return query.append(";").toString();
+  }
+
+  private static String getInsertStatement(String table, List<DbDataContainer> insertValues) {
+    List<String> fields = new ArrayList<>(insertValues.size());
+    for (DbDataContainer container : insertValues) {
+      fields.add(container.getField());
+    }
+
+    return STATEMENT_CACHE.computeIfAbsent(new StatementKey(table, null, fields), key -> {
+      StringBuilder insertString = new StringBuilder("insert into ").append(table).append("(");
+      StringBuilder valuesString = new StringBuilder("values (");
+
+      for (int i = 0; i < fields.size(); i++) {
+        if (i > 0) {
+          insertString.append(", ");
+          valuesString.append(", ");
+        }
+
+        insertString.append(fields.get(i));
+        valuesString.append("?");
+      }
+
+      return insertString.append(")").append(valuesString).append(");").toString();
+    });
+  }
+
+  private static String getSelectStatement(String table, List<String> projection, List<DbDataContainer> predicatesAndValues) {
+    List<String> fields = new ArrayList<>(predicatesAndValues.size());
+    for (DbDataContainer container : predicatesAndValues) {
+      fields.add(container.getField());
+    }
+
+    return STATEMENT_CACHE.computeIfAbsent(new StatementKey(table, projection, fields), key -> {
+      StringBuilder select = new StringBuilder("select ").append(String.join(", ", projection));
+      select.append(" from ").append(table);
+
+      for (int i = 0; i < fields.size(); i++) {
+        select.append(i == 0 ? " where " : " and ").append(fields.get(i)).append(" = ?");
+      }
+
+      return select.append(";").toString();
+    });
+  }
+
+  private static String getDeleteStatement(String table, List<DbDataContainer> predicatesAndValues) {
+    List<String> fields = new ArrayList<>(predicatesAndValues.size());
+    for (DbDataContainer container : predicatesAndValues) {
+      fields.add(container.getField());
+    }
+
+    return STATEMENT_CACHE.computeIfAbsent(new StatementKey(table, DELETE_PROJECTION, fields), key -> {
+      StringBuilder delete = new StringBuilder("delete from ").append(table);
+
+      for (int i = 0; i < fields.size(); i++) {
+        delete.append(i == 0 ? " where " : " and ").append(fields.get(i)).append(" = ?");
+      }
+
+      return delete.append(";").toString();
+    });
+  }
+
+  private static String getRichVersionStatement(String table, String listTable, String listKey, String listColumn) {
+    List<String> listFields = listTable == null ? Collections.emptyList() : Arrays.asList(listTable, listKey, listColumn);
+
+    return STATEMENT_CACHE.computeIfAbsent(new StatementKey(table, RICH_VERSION_PROJECTION, listFields), key -> {
+      StringBuilder select = new StringBuilder("select v.*, rv.structure_id, rv.reference, ");
+      select.append("(select json_agg(json_build_array(t.key, t.value, t.type)) from Tags t where t.richversion_id = v.id) as tags, ");
+      select.append("(select json_object_agg(p.key, p.value) from RichVersionExternalParameters p where p.richversion_id = v.id) as parameters");
+
+      if (listTable != null) {
+        select.append(", (select json_agg(l.").append(listColumn).append(") from ").append(listTable)
+            .append(" l where l.").append(listKey).append(" = v.id) as list");
+      }
+
+      return select.append(" from ").append(table).append(" v join RichVersions rv on rv.id = v.id where v.id = ?;").toString();
+    });
+  }
+
+  private static class StatementKey {
+    private final String table;
+
+    // the selected columns, or null for an insert
+    private final List<String> projection;
+
+    // the inserted or filtered columns, in order
+    private final List<String> fields;
+
+    StatementKey(String table, List<String> projection, List<String> fields) {
+      this.table = table;
+      this.projection = projection;
+      this.fields = fields;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof StatementKey)) {
+        return false;
+      }
+
+      StatementKey that = (StatementKey) other;
+
+      return this.table.equals(that.table) && Objects.equals(this.projection, that.projection)
+          && this.fields.equals(that.fields);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(this.table, this.projection, this.fields);
+    }
+  }
+
   private static void setValue(PreparedStatement preparedStatement, Object value, GroundType groundType, int index) throws SQLException {
     switch (groundType) {
       case STRING:
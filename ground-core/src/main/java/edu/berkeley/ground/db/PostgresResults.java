@@ -16,7 +16,6 @@ package edu.berkeley.ground.db;
 
 import edu.berkeley.ground.exceptions.GroundException;
 
-import org.apache.commons.lang.NotImplementedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,7 +52,13 @@ public class PostgresResults implements QueryResults {
   }
 
   public String getString(String field) throws GroundException {
-    throw new NotImplementedException();
+    try {
+      return resultSet.getString(field);
+    } catch (SQLException e) {
+      LOGGER.error(e.getMessage());
+
+      throw new GroundException(e);
+    }
   }
 
   public int getInt(int index) throws GroundException {
@@ -83,4 +83,18 @@ public class GraphsResource {
         graphVersion.getEdgeVersionIds(),
         parentIds);
   }
+
+  @POST
+  @Timed
+  @Path("/versions/bulk")
+  public GraphVersion createGraphVersionBulk(@Valid GraphVersion graphVersion, @QueryParam("parent") List<String> parentIds) throws GroundException {
+    LOGGER.info("Bulk creating graph version with " + graphVersion.getEdgeVersionIds().size() + " edges in graph " + graphVersion.getGraphId() + ".");
+    return this.graphVersionFactory.createBulk(graphVersion.getTags(),
+        graphVersion.getStructureVersionId(),
+        graphVersion.getReference(),
+        graphVersion.getParameters(),
+        graphVersion.getGraphId(),
+        graphVersion.getEdgeVersionIds(),
+        parentIds);
+  }
 }
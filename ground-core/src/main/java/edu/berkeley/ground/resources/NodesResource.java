@@ -15,7 +15,10 @@
 package edu.berkeley.ground.resources;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
+import edu.berkeley.ground.api.models.ClosureBounds;
 import edu.berkeley.ground.api.models.Node;
 import edu.berkeley.ground.api.models.NodeFactory;
 import edu.berkeley.ground.api.models.NodeVersion;
@@ -29,8 +32,12 @@ import org.slf4j.LoggerFactory;
 import javax.validation.Valid;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Path("/nodes")
 @Api(value = "/nodes", description = "Interact with the nodes in the graph")
@@ -38,13 +45,21 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 public class NodesResource {
   private static final Logger LOGGER = LoggerFactory.getLogger(NodesResource.class);
+  // Jersey closes the response stream itself, and a failed query must not end the array
+  private static final JsonFactory JSON_FACTORY = new JsonFactory()
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+      .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
 
   private NodeFactory nodeFactory;
   private NodeVersionFactory nodeVersionFactory;
 
-  public NodesResource(NodeFactory nodeFactory, NodeVersionFactory nodeVersionFactory) {
+  // the time, in milliseconds, after which a transitive closure query fails
+  private long closureTimeout;
+
+  public NodesResource(NodeFactory nodeFactory, NodeVersionFactory nodeVersionFactory, long closureTimeout) {
     this.nodeFactory = nodeFactory;
     this.nodeVersionFactory = nodeVersionFactory;
+    this.closureTimeout = closureTimeout;
   }
 
   @GET
@@ -84,6 +99,14 @@ public class NodesResource {
         parentIds);
   }
 
+  @POST
+  @Timed
+  @Path("/versions/batch")
+  public List<NodeVersion> createNodeVersions(@Valid List<NodeVersion> nodeVersions, @QueryParam("parents") List<String> parentIds) throws GroundException {
+    LOGGER.info("Creating " + nodeVersions.size() + " node versions.");
+    return this.nodeVersionFactory.create(nodeVersions, parentIds);
+  }
+
   @GET
   @Timed
   @Path("/{name}/latest")
@@ -95,18 +118,69 @@ public class NodesResource {
   @GET
   @Timed
   @Path("/closure/{id}")
-  public List<String> transitiveClosure(@PathParam("id") String nodeVersionId) throws GroundException {
+  public StreamingOutput transitiveClosure(@PathParam("id") String nodeVersionId,
+                                           @QueryParam("maxDepth") @DefaultValue("0") int maxDepth,
+                                           @QueryParam("edgeName") String edgeNameRegex,
+                                           @QueryParam("limit") @DefaultValue("0") int limit) {
     LOGGER.info("Running transitive closure on node version  " + nodeVersionId + ".");
 
-    return this.nodeVersionFactory.getTransitiveClosure(nodeVersionId);
+    ClosureBounds bounds = new ClosureBounds(maxDepth, edgeNameRegex, limit, this.closureTimeout);
+    return streamIds(consumer -> this.nodeVersionFactory.getTransitiveClosure(nodeVersionId, bounds, consumer));
+  }
+
+  @GET
+  @Timed
+  @Path("/reachable/{fromId}/{toId}")
+  public boolean isReachable(@PathParam("fromId") String fromId, @PathParam("toId") String toId) throws GroundException {
+    LOGGER.info("Checking whether node version " + toId + " is downstream of " + fromId + ".");
+    return this.nodeVersionFactory.isReachable(fromId, toId);
   }
 
   @GET
   @Timed
   @Path("/adjacent/{id}/{edgeName}")
-  public List<String> adjacentNodes(@PathParam("id") String nodeVersionId, @PathParam("edgeName") String edgeNameRegex) throws GroundException {
+  public StreamingOutput adjacentNodes(@PathParam("id") String nodeVersionId, @PathParam("edgeName") String edgeNameRegex) {
     LOGGER.info("Retrieving adjancent nodes to node version  " + nodeVersionId + ".");
 
-    return this.nodeVersionFactory.getAdjacentNodes(nodeVersionId, edgeNameRegex);
+    return streamIds(consumer -> this.nodeVersionFactory.getAdjacentNodes(nodeVersionId, edgeNameRegex, consumer));
+  }
+
+  // a query that passes each id it finds to consumer
+  private interface IdQuery {
+    void run(Consumer<String> consumer) throws GroundException;
+  }
+
+  /**
+   * Write the ids found by query as a JSON array while the query runs, so that the ids are never
+   * all held in memory and the client receives the first ones without waiting for the last.
+   *
+   * If the query fails before anything is flushed, the client gets an error status as usual. Once
+   * the first ids have been flushed the status is already 200 and can't become a 500, so the
+   * array is left unterminated and the connection is aborted; the client sees a body that isn't
+   * valid JSON rather than a complete-looking, truncated result.
+   */
+  private static StreamingOutput streamIds(IdQuery query) {
+    return output -> {
+      JsonGenerator generator = JSON_FACTORY.createGenerator(output);
+      generator.writeStartArray();
+
+      // on failure the generator is deliberately not closed, since closing it would flush it
+      try {
+        query.run(id -> {
+          try {
+            generator.writeString(id);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } catch (GroundException e) {
+        throw new WebApplicationException(e);
+      }
+
+      generator.writeEndArray();
+      generator.close();
+    };
   }
 }
@@ -14,6 +14,8 @@
 
 package edu.berkeley.ground.util;
 
+import com.datastax.driver.core.exceptions.DriverException;
+
 import edu.berkeley.ground.api.models.*;
 import edu.berkeley.ground.api.models.cassandra.*;
 import edu.berkeley.ground.api.usage.LineageEdgeFactory;
@@ -25,8 +27,16 @@ import edu.berkeley.ground.api.versions.cassandra.CassandraVersionFactory;
 import edu.berkeley.ground.api.versions.cassandra.CassandraVersionHistoryDAGFactory;
 import edu.berkeley.ground.api.versions.cassandra.CassandraVersionSuccessorFactory;
 import edu.berkeley.ground.db.CassandraClient;
+import edu.berkeley.ground.db.DBClient;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
 
 public class CassandraFactories {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CassandraFactories.class);
+
   private CassandraStructureFactory structureFactory;
   private CassandraStructureVersionFactory structureVersionFactory;
   private CassandraEdgeFactory edgeFactory;
@@ -58,6 +68,64 @@ public class CassandraFactories {
 
     this.lineageEdgeFactory = new CassandraLineageEdgeFactory(itemFactory, cassandraClient);
     this.lineageEdgeVersionFactory = new CassandraLineageEdgeVersionFactory(this.lineageEdgeFactory, richVersionFactory, cassandraClient);
+
+    prepareStatements(cassandraClient);
+  }
+
+  /**
+   * Prepare every statement used by the factories above, so that no request pays for the round
+   * trip of preparing one. These must be kept in sync with the columns the factories write and
+   * query.
+   *
+   * @param cassandraClient the client to prepare the statements on
+   */
+  private static void prepareStatements(CassandraClient cassandraClient) {
+    try {
+      for (String itemTable : new String[]{"Structures", "Nodes", "Edges", "Graphs", "LineageEdges"}) {
+        cassandraClient.prepareInsert(itemTable, "name", "item_id");
+        cassandraClient.prepareInsert(itemTable + "ByName", "name", "item_id");
+        cassandraClient.prepareSelect(itemTable + "ByName", DBClient.SELECT_STAR, "name");
+      }
+
+      cassandraClient.prepareInsert("Versions", "id");
+      cassandraClient.prepareSelect("Versions", DBClient.SELECT_STAR, "id");
+      cassandraClient.prepareInsert("Items", "id");
+      cassandraClient.prepareInsert("VersionSuccessors", "successor_id", "vfrom", "vto");
+      cassandraClient.prepareSelect("VersionSuccessors", DBClient.SELECT_STAR, "successor_id");
+      cassandraClient.prepareInsert("VersionHistoryDAGs", "item_id", "successor_id", "vfrom", "vto");
+      cassandraClient.prepareSelect("VersionHistoryDAGs", DBClient.SELECT_STAR, "item_id");
+      cassandraClient.prepareInsert("ItemLeaves", "item_id", "version_id");
+      cassandraClient.prepareDelete("ItemLeaves", "item_id", "version_id");
+      cassandraClient.prepareSelect("ItemLeaves", Collections.singletonList("version_id"), "item_id");
+
+      cassandraClient.prepareInsert("RichVersions", "id", "structure_id", "reference");
+      cassandraClient.prepareSelect("RichVersions", DBClient.SELECT_STAR, "id");
+      cassandraClient.prepareInsert("Tags", "richversion_id", "key", "value", "type");
+      cassandraClient.prepareSelect("Tags", DBClient.SELECT_STAR, "richversion_id");
+      cassandraClient.prepareInsert("TagsByKey", "key", "richversion_id");
+      cassandraClient.prepareSelect("TagsByKey", Collections.singletonList("richversion_id"), "key");
+      cassandraClient.prepareInsert("RichVersionExternalParameters", "richversion_id", "key", "value");
+      cassandraClient.prepareSelect("RichVersionExternalParameters", DBClient.SELECT_STAR, "richversion_id");
+
+      cassandraClient.prepareInsert("StructureVersions", "id", "structure_id");
+      cassandraClient.prepareSelect("StructureVersions", DBClient.SELECT_STAR, "id");
+      cassandraClient.prepareInsert("StructureVersionItems", "svid", "key", "type");
+      cassandraClient.prepareSelect("StructureVersionItems", DBClient.SELECT_STAR, "svid");
+      cassandraClient.prepareInsert("NodeVersions", "id", "node_id");
+      cassandraClient.prepareSelect("NodeVersions", DBClient.SELECT_STAR, "id");
+      cassandraClient.prepareInsert("EdgeVersions", "id", "edge_id", "endpoint_one", "endpoint_two");
+      cassandraClient.prepareInsert("EdgeVersionsByEndpoint", "id", "edge_id", "endpoint_one", "endpoint_two");
+      cassandraClient.prepareSelect("EdgeVersions", DBClient.SELECT_STAR, "id");
+      cassandraClient.prepareInsert("GraphVersions", "id", "graph_id");
+      cassandraClient.prepareSelect("GraphVersions", DBClient.SELECT_STAR, "id");
+      cassandraClient.prepareInsert("GraphVersionEdges", "gvid", "evid");
+      cassandraClient.prepareSelect("GraphVersionEdges", DBClient.SELECT_STAR, "gvid");
+      cassandraClient.prepareInsert("LineageEdgeVersions", "id", "lineageedge_id", "endpoint_one", "endpoint_two");
+      cassandraClient.prepareSelect("LineageEdgeVersions", DBClient.SELECT_STAR, "id");
+    } catch (DriverException e) {
+      // statements that aren't prepared here are prepared on first use instead
+      LOGGER.error("Unable to prepare Cassandra statements: " + e.getMessage());
+    }
   }
 
   public EdgeFactory getEdgeFactory() {
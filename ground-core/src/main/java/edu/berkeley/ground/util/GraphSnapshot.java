@@ -0,0 +1,186 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A binary snapshot of a version graph on disk. The file holds the time it was taken, every
+ * vertex id in handle order and then, for every vertex, its successors' handles. Snapshots are read through a memory
+ * mapping, so that loading one is a sequential scan of the page cache rather than a stream of
+ * small reads.
+ */
+public class GraphSnapshot {
+  private static final int MAGIC = 0x47524e44;
+  private static final int FORMAT_VERSION = 2;
+
+  // the largest region of the file mapped at once
+  private static final int MAX_MAPPING_SIZE = 256 * 1024 * 1024;
+
+  private GraphSnapshot() {
+  }
+
+  /**
+   * Write graph to path. The snapshot is written to a temporary file which then replaces path, so
+   * that a crash never leaves a partial snapshot behind.
+   *
+   * @param path      the file to write
+   * @param timestamp the time, in milliseconds, up to which graph is complete
+   * @param graph     the graph to write
+   */
+  public static void write(Path path, long timestamp, VersionGraph graph) throws IOException {
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+    try (OutputStream file = Files.newOutputStream(temporary);
+         DataOutputStream output = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+      output.writeInt(MAGIC);
+      output.writeInt(FORMAT_VERSION);
+      output.writeLong(timestamp);
+
+      int vertexCount = graph.getVertexCount();
+
+      output.writeInt(vertexCount);
+      for (int handle = 0; handle < vertexCount; handle++) {
+        byte[] bytes = graph.getId(handle).getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+
+      for (int handle = 0; handle < vertexCount; handle++) {
+        int[] successors = graph.getSuccessors(handle);
+
+        // concurrent writers may have added successors after vertexCount was read; they have no
+        // id in the snapshot, and are restored from the graph log instead
+        int degree = 0;
+        for (int successor : successors) {
+          if (successor < vertexCount) {
+            degree++;
+          }
+        }
+
+        output.writeInt(degree);
+        for (int successor : successors) {
+          if (successor < vertexCount) {
+            output.writeInt(successor);
+          }
+        }
+      }
+    }
+
+    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Add the vertices and edges of the snapshot at path to graph.
+   *
+   * @param path  the file to read
+   * @param graph the graph to add to
+   * @return the time, in milliseconds, up to which the snapshot is complete
+   */
+  public static long read(Path path, VersionGraph graph) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MappedReader reader = new MappedReader(channel);
+
+      if (reader.readInt() != MAGIC || reader.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unrecognized graph snapshot format in " + path + ".");
+      }
+
+      long timestamp = reader.readLong();
+
+      // graph may already have vertices, so map the snapshot's handles to graph's
+      int vertexCount = reader.readInt();
+      int[] handles = new int[vertexCount];
+      for (int i = 0; i < vertexCount; i++) {
+        handles[i] = graph.addVertex(reader.readString());
+      }
+
+      for (int i = 0; i < vertexCount; i++) {
+        int degree = reader.readInt();
+
+        for (int j = 0; j < degree; j++) {
+          graph.addEdge(handles[i], handles[reader.readInt()]);
+        }
+      }
+
+      return timestamp;
+    }
+  }
+
+  /**
+   * Reads a file through a window mapped into memory, which moves along the file as it is read.
+   * This keeps snapshots of more than 2GB, the limit of a single mapping, readable.
+   */
+  private static class MappedReader {
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    MappedReader(FileChannel channel) throws IOException {
+      this.channel = channel;
+      this.size = channel.size();
+      this.map(0);
+    }
+
+    int readInt() throws IOException {
+      this.ensure(Integer.BYTES);
+      return this.window.getInt();
+    }
+
+    long readLong() throws IOException {
+      this.ensure(Long.BYTES);
+      return this.window.getLong();
+    }
+
+    String readString() throws IOException {
+      int length = this.readInt();
+      byte[] bytes = new byte[length];
+
+      this.ensure(length);
+      this.window.get(bytes);
+
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (this.window.remaining() < bytes) {
+        long position = this.windowStart + this.window.position();
+
+        if (this.size - position < bytes) {
+          throw new IOException("Truncated graph snapshot.");
+        }
+
+        this.map(position);
+      }
+    }
+
+    private void map(long position) throws IOException {
+      this.windowStart = position;
+      this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_MAPPING_SIZE, this.size - position));
+    }
+  }
+}
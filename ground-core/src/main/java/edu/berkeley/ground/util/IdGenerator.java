@@ -12,39 +12,42 @@
  * limitations under the License.
  */
 
-package edu.berkeley.ground.util;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
+package edu.berkeley.ground.util;
 
 public class IdGenerator {
-  private static int counter = 0;
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
-  private static int numBytes = 20;
-  private static final String SEED = byteArrayToString(new SecureRandom().generateSeed(numBytes));
+  private static volatile IdStrategy strategy = new Sha1IdStrategy();
 
   public static String generateId(String baseId) {
+    return strategy.generateId(baseId);
+  }
 
-    return SHA1(SEED + counter++ + baseId);
+  /**
+   * Set the strategy used for all ids generated after this call. This should be done once, at
+   * startup, before any ids are handed out.
+   *
+   * @param idStrategy the new strategy
+   */
+  public static void setStrategy(IdStrategy idStrategy) {
+    strategy = idStrategy;
   }
 
-  private static String SHA1(String str) {
-    try {
-      MessageDigest md = MessageDigest.getInstance("SHA1");
-      return byteArrayToString(md.digest(str.getBytes()));
-    } catch (NoSuchAlgorithmException e) {
-      throw new RuntimeException("FATAL ERROR: No SHA1 algorithm found in MessageDigest.");
+  /**
+   * Write the low digits of value in hex into chars, ending just before end.
+   */
+  static void writeHex(char[] chars, int end, long value, int digits) {
+    for (int i = 1; i <= digits; i++) {
+      chars[end - i] = HEX_DIGITS[(int) (value & 0xf)];
+      value >>>= 4;
     }
   }
 
-  private static String byteArrayToString(byte[] array) {
-    StringBuilder sb = new StringBuilder();
-
-    for (byte b : array) {
-      sb.append(Integer.toString(b & 0xff + 0x100, 16).substring(1));
+  static void writeHex(char[] chars, byte[] bytes) {
+    for (int i = 0; i < bytes.length; i++) {
+      chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+      chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
     }
-
-    return sb.toString();
   }
 }
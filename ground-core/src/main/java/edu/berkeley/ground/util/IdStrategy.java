@@ -0,0 +1,31 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.util;
+
+/**
+ * Generates globally unique ids for new objects. Implementations must be safe to call from many
+ * threads at once.
+ */
+public interface IdStrategy {
+  /**
+   * Generate a new id.
+   *
+   * @param baseId a name for what the id is being generated for (e.g., the id of the Item that a
+   *               new version belongs to); strategies may ignore it
+   * @return the new id
+   */
+  String generateId(String baseId);
+}
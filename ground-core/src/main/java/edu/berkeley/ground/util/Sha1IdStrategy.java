@@ -0,0 +1,119 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.util;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids that are the SHA-1 hash of a random per-process seed, a counter and the base id, as 40 hex
+ * characters. This is the original id scheme; the digest, the UTF-8 encoding of the base id and
+ * the output are all written into buffers reused per thread.
+ */
+public class Sha1IdStrategy implements IdStrategy {
+  private static final int SEED_BYTES = 20;
+  private static final int DIGEST_BYTES = 20;
+
+  private final byte[] seed = new SecureRandom().generateSeed(SEED_BYTES);
+  private final AtomicLong counter = new AtomicLong();
+
+  private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+  public String generateId(String baseId) {
+    State state = this.state.get();
+    long count = this.counter.getAndIncrement();
+
+    for (int i = 0; i < 8; i++) {
+      state.counterBytes[i] = (byte) (count >>> (56 - 8 * i));
+    }
+
+    MessageDigest digest = state.digest;
+    digest.update(this.seed);
+    digest.update(state.counterBytes);
+    digest.update(state.baseIdBytes, 0, state.encode(baseId));
+
+    try {
+      digest.digest(state.digestBytes, 0, DIGEST_BYTES);
+    } catch (DigestException e) {
+      throw new RuntimeException("FATAL ERROR: Unable to compute SHA1 digest.", e);
+    }
+
+    IdGenerator.writeHex(state.chars, state.digestBytes);
+    return new String(state.chars);
+  }
+
+  private static class State {
+    private final MessageDigest digest;
+    private final byte[] counterBytes = new byte[8];
+    private final byte[] digestBytes = new byte[DIGEST_BYTES];
+    private final char[] chars = new char[2 * DIGEST_BYTES];
+    private byte[] baseIdBytes = new byte[64];
+
+    State() {
+      try {
+        this.digest = MessageDigest.getInstance("SHA1");
+      } catch (NoSuchAlgorithmException e) {
+        throw new RuntimeException("FATAL ERROR: No SHA1 algorithm found in MessageDigest.");
+      }
+    }
+
+    /**
+     * Write the UTF-8 encoding of s into baseIdBytes, growing it if needed. Unpaired surrogates
+     * become '?', as they do in String.getBytes.
+     *
+     * @param s the string to encode
+     * @return the number of bytes written
+     */
+    private int encode(String s) {
+      // a UTF-16 char takes at most 3 bytes; a surrogate pair takes 4 for its 2 chars
+      if (this.baseIdBytes.length < 3 * s.length()) {
+        this.baseIdBytes = new byte[3 * s.length()];
+      }
+
+      byte[] bytes = this.baseIdBytes;
+      int length = 0;
+      for (int i = 0; i < s.length(); i++) {
+        char c = s.charAt(i);
+
+        if (c < 0x80) {
+          bytes[length++] = (byte) c;
+        } else if (c < 0x800) {
+          bytes[length++] = (byte) (0xc0 | (c >> 6));
+          bytes[length++] = (byte) (0x80 | (c & 0x3f));
+        } else if (Character.isSurrogate(c)) {
+          if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int codePoint = Character.toCodePoint(c, s.charAt(++i));
+            bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+            bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+            bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+          } else {
+            bytes[length++] = (byte) '?';
+          }
+        } else {
+          bytes[length++] = (byte) (0xe0 | (c >> 12));
+          bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+          bytes[length++] = (byte) (0x80 | (c & 0x3f));
+        }
+      }
+
+      return length;
+    }
+  }
+}
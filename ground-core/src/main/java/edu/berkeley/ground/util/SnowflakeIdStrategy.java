@@ -0,0 +1,51 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style 64-bit ids, as 16 hex characters: 41 bits of milliseconds since 2016-01-01,
+ * a 12-bit sequence number and a 10-bit worker id. Each server must be given a distinct worker
+ * id.
+ */
+public class SnowflakeIdStrategy implements IdStrategy {
+  private static final long EPOCH = 1451606400000L;
+  private static final int SEQUENCE_BITS = 12;
+  private static final int WORKER_BITS = 10;
+
+  private final long workerId;
+
+  // the last time/sequence pair handed out
+  private final AtomicLong last = new AtomicLong();
+
+  public SnowflakeIdStrategy(int workerId) {
+    if (workerId < 0 || workerId >= 1 << WORKER_BITS) {
+      throw new IllegalArgumentException("Worker id must be between 0 and " + ((1 << WORKER_BITS) - 1) + ".");
+    }
+
+    this.workerId = workerId;
+  }
+
+  public String generateId(String baseId) {
+    long next = TimeOrderedIdStrategy.nextTimeAndSequence(this.last, SEQUENCE_BITS) - (EPOCH << SEQUENCE_BITS);
+
+    char[] chars = new char[16];
+    IdGenerator.writeHex(chars, 16, (next << WORKER_BITS) | this.workerId, 16);
+
+    return new String(chars);
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.util;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 128-bit ids, as 32 hex characters, that sort in creation order. The high 64 bits are the
+ * creation time in milliseconds followed by a 16-bit sequence number, and the low 64 bits are
+ * random per process, so ids from different servers don't collide.
+ */
+public class TimeOrderedIdStrategy implements IdStrategy {
+  private static final int SEQUENCE_BITS = 16;
+
+  private final long node = new SecureRandom().nextLong();
+
+  // the last time/sequence pair handed out
+  private final AtomicLong last = new AtomicLong();
+
+  public String generateId(String baseId) {
+    long next = nextTimeAndSequence(this.last, SEQUENCE_BITS);
+
+    char[] chars = new char[32];
+    IdGenerator.writeHex(chars, 16, next, 16);
+    IdGenerator.writeHex(chars, 32, this.node, 16);
+
+    return new String(chars);
+  }
+
+  /**
+   * Atomically advance last to a time/sequence pair greater than any handed out before. If the
+   * sequence runs out within a millisecond, it carries into the time, so ids stay unique and
+   * ordered without waiting for the clock.
+   */
+  static long nextTimeAndSequence(AtomicLong last, int sequenceBits) {
+    long now = System.currentTimeMillis() << sequenceBits;
+
+    while (true) {
+      long previous = last.get();
+      long next = now > previous ? now : previous + 1;
+
+      if (last.compareAndSet(previous, next)) {
+        return next;
+      }
+    }
+  }
+}
@@ -0,0 +1,327 @@
+/**
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.berkeley.ground.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A directed graph of version ids, laid out for memory use and traversal speed. Every vertex id is
+ * interned to an int handle, in the order in which vertices are added, and the successors of each
+ * vertex are kept in an int array. Compared to a DefaultDirectedGraph, this needs no objects per
+ * edge or per edge set, and a traversal walks int arrays rather than hash sets.
+ *
+ * The graph is safe for concurrent use. Writers are serialized by a lock, but only hold it for a
+ * hash probe and a small array copy. Readers never lock: successor arrays are copy-on-write, and
+ * the tables are only ever replaced as a whole when the graph grows, so a traversal always sees
+ * a consistent graph, possibly without edges added after it started.
+ *
+ * Parallel edges are ignored, like in a simple graph, and adding an edge adds its missing
+ * endpoints.
+ */
+public class VersionGraph {
+  private static final int[] NO_SUCCESSORS = new int[0];
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final Object writeLock = new Object();
+  private volatile Tables tables;
+  private volatile long edgeCount;
+
+  public VersionGraph() {
+    this.tables = new Tables(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Add a vertex, if it isn't in the graph yet.
+   *
+   * @param id the id of the vertex
+   * @return the handle of the vertex
+   */
+  public int addVertex(String id) {
+    // most ids are already known, so look for them without taking the lock
+    int handle = this.getHandle(id);
+    if (handle >= 0) {
+      return handle;
+    }
+
+    synchronized (this.writeLock) {
+      return this.addVertexLocked(id);
+    }
+  }
+
+  /**
+   * Add an edge, and any of its endpoints that aren't in the graph yet.
+   *
+   * @param from the id of the source vertex
+   * @param to   the id of the target vertex
+   */
+  public void addEdge(String from, String to) {
+    synchronized (this.writeLock) {
+      this.addEdgeLocked(this.addVertexLocked(from), this.addVertexLocked(to));
+    }
+  }
+
+  /**
+   * Add an edge between two existing vertices.
+   *
+   * @param from the handle of the source vertex
+   * @param to   the handle of the target vertex
+   */
+  public void addEdge(int from, int to) {
+    synchronized (this.writeLock) {
+      this.addEdgeLocked(from, to);
+    }
+  }
+
+  public boolean containsVertex(String id) {
+    return this.getHandle(id) >= 0;
+  }
+
+  /**
+   * Look up the handle of a vertex.
+   *
+   * @param id the id of the vertex
+   * @return its handle, or -1 if it isn't in the graph
+   */
+  public int getHandle(String id) {
+    Tables tables = this.tables;
+    return tables.slots.get(tables.findSlot(id)) - 1;
+  }
+
+  public String getId(int handle) {
+    return this.tables.ids.get(handle);
+  }
+
+  /**
+   * Get the successors of a vertex.
+   *
+   * @param handle the handle of the vertex
+   * @return a copy of the handles of its successors
+   */
+  public int[] getSuccessors(int handle) {
+    return this.tables.successors.get(handle).clone();
+  }
+
+  /**
+   * Get the ids of the successors of a vertex.
+   *
+   * @param id the id of the vertex
+   * @return the ids of its successors; empty if it isn't in the graph
+   */
+  public List<String> getSuccessors(String id) {
+    Tables tables = this.tables;
+    int handle = tables.slots.get(tables.findSlot(id)) - 1;
+    List<String> result = new ArrayList<>();
+
+    if (handle >= 0) {
+      for (int successor : tables.successors.get(handle)) {
+        result.add(tables.ids.get(successor));
+      }
+    }
+
+    return result;
+  }
+
+  public int getVertexCount() {
+    return this.tables.count;
+  }
+
+  public long getEdgeCount() {
+    return this.edgeCount;
+  }
+
+  /**
+   * Run transitive closure from start, in depth-first order.
+   *
+   * @param start the start version
+   * @return the list of reachable vertices, including start
+   */
+  public List<String> runDFS(String start) {
+    return this.traverse(start, true);
+  }
+
+  /**
+   * Find the vertices reachable from start by a path of at least one edge, in depth-first order.
+   * Unlike runDFS, start is only included if it is on a cycle.
+   *
+   * @param start the start version
+   * @return the list of reachable vertices
+   */
+  public List<String> getDescendants(String start) {
+    return this.traverse(start, false);
+  }
+
+  private List<String> traverse(String start, boolean includeStart) {
+    // traverse a single version of the tables, even if the graph grows meanwhile
+    Tables tables = this.tables;
+    int handle = tables.slots.get(tables.findSlot(start)) - 1;
+
+    if (handle < 0) {
+      throw new IllegalArgumentException("graph must contain the start vertex");
+    }
+
+    List<String> result = new ArrayList<>();
+    BitSet visited = new BitSet(tables.count);
+
+    int[] stack = new int[16];
+    int size = 0;
+
+    if (includeStart) {
+      stack[size++] = handle;
+    } else {
+      int[] edges = tables.successors.get(handle);
+      if (edges.length > stack.length) {
+        stack = new int[edges.length];
+      }
+
+      for (int i = edges.length - 1; i >= 0; i--) {
+        stack[size++] = edges[i];
+      }
+    }
+
+    while (size > 0) {
+      int vertex = stack[--size];
+
+      if (visited.get(vertex)) {
+        continue;
+      }
+
+      visited.set(vertex);
+      result.add(tables.ids.get(vertex));
+
+      // push in reverse, so that successors are visited in the order they were added
+      int[] edges = tables.successors.get(vertex);
+      for (int i = edges.length - 1; i >= 0; i--) {
+        if (!visited.get(edges[i])) {
+          if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+          }
+
+          stack[size++] = edges[i];
+        }
+      }
+    }
+
+    return result;
+  }
+
+  private int addVertexLocked(String id) {
+    Tables tables = this.tables;
+    int slot = tables.findSlot(id);
+
+    if (tables.slots.get(slot) != 0) {
+      return tables.slots.get(slot) - 1;
+    }
+
+    if (tables.count == tables.ids.length()) {
+      tables = this.grow(tables);
+      slot = tables.findSlot(id);
+    }
+
+    // publish the id before the slot that refers to it, so that readers never see a handle
+    // without its id
+    int handle = tables.count;
+    tables.ids.set(handle, id);
+    tables.slots.set(slot, handle + 1);
+    tables.count = handle + 1;
+
+    return handle;
+  }
+
+  private void addEdgeLocked(int from, int to) {
+    Tables tables = this.tables;
+    int[] edges = tables.successors.get(from);
+
+    // version graphs have small out-degrees, so a scan is cheaper than a set per vertex
+    for (int edge : edges) {
+      if (edge == to) {
+        return;
+      }
+    }
+
+    int[] copy = Arrays.copyOf(edges, edges.length + 1);
+    copy[edges.length] = to;
+
+    tables.successors.set(from, copy);
+    this.edgeCount++;
+  }
+
+  private Tables grow(Tables tables) {
+    Tables grown = new Tables(tables.ids.length() * 2);
+
+    for (int handle = 0; handle < tables.count; handle++) {
+      String id = tables.ids.get(handle);
+
+      grown.ids.set(handle, id);
+      grown.slots.set(grown.findSlot(id), handle + 1);
+      grown.successors.set(handle, tables.successors.get(handle));
+    }
+
+    grown.count = tables.count;
+    this.tables = grown;
+
+    return grown;
+  }
+
+  /**
+   * The vertex tables of one capacity. Only the writer holding the lock modifies them, and every
+   * element is published with volatile semantics.
+   */
+  private static class Tables {
+    // the id of each handle
+    final AtomicReferenceArray<String> ids;
+
+    // an open addressing hash table of ids to handle + 1, at most half full; 0 marks an empty slot
+    final AtomicIntegerArray slots;
+
+    // the successors of each handle; arrays are replaced, never modified
+    final AtomicReferenceArray<int[]> successors;
+
+    volatile int count;
+
+    Tables(int capacity) {
+      this.ids = new AtomicReferenceArray<>(capacity);
+      this.slots = new AtomicIntegerArray(capacity * 2);
+      this.successors = new AtomicReferenceArray<>(capacity);
+
+      for (int i = 0; i < capacity; i++) {
+        this.successors.lazySet(i, NO_SUCCESSORS);
+      }
+    }
+
+    int findSlot(String id) {
+      int mask = this.slots.length() - 1;
+      int slot = mix(id.hashCode()) & mask;
+
+      int handle;
+      while ((handle = this.slots.get(slot)) != 0 && !this.ids.get(handle - 1).equals(id)) {
+        slot = (slot + 1) & mask;
+      }
+
+      return slot;
+    }
+  }
+
+  private static int mix(int hash) {
+    // spread the bits of String.hashCode, whose low bits cluster for similar ids
+    hash *= 0x9E3779B9;
+    return hash ^ (hash >>> 16);
+  }
+}
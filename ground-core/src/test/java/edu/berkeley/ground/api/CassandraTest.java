@@ -1,5 +1,6 @@
 package edu.berkeley.ground.api;
 
+import org.junit.After;
 import org.junit.Before;
 
 import java.io.File;
@@ -50,4 +51,9 @@ public class CassandraTest {
 
     p.destroy();
   }
+
+  @After
+  public void tearDown() throws Exception {
+    this.cassandraClient.stop();
+  }
 }
@@ -0,0 +1,174 @@
+package edu.berkeley.ground.api.cache;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.berkeley.ground.exceptions.GroundException;
+
+import static org.junit.Assert.*;
+
+public class ReachabilityIndexTest {
+  // stands in for the store: the edges, and the closures computed from them
+  private Map<String, List<String>> edges;
+  private AtomicInteger loads;
+  private MetricRegistry metricRegistry;
+  private ReachabilityIndex index;
+
+  @Before
+  public void setup() {
+    this.edges = new HashMap<>();
+    this.loads = new AtomicInteger();
+    this.metricRegistry = new MetricRegistry();
+    this.index = new ReachabilityIndex(this::closure, 1024 * 1024, this.metricRegistry);
+  }
+
+  @Test
+  public void testClosureLoadsOnce() throws GroundException {
+    this.store("a", "b");
+    this.store("b", "c");
+
+    assertEquals(new HashSet<>(Arrays.asList("b", "c")), this.descendants("a"));
+    assertEquals(new HashSet<>(Arrays.asList("b", "c")), this.descendants("a"));
+    assertEquals(1, this.loads.get());
+  }
+
+  @Test
+  public void testAddEdgeUpdatesAncestors() throws GroundException {
+    this.store("a", "b");
+    this.store("b", "c");
+    this.store("d", "e");
+
+    this.descendants("a");
+    this.descendants("b");
+    int loads = this.loads.get();
+
+    // d isn't indexed yet, so its closure is loaded once to extend a and b
+    this.store("c", "d");
+    this.index.addEdge("c", "d");
+
+    assertEquals(new HashSet<>(Arrays.asList("b", "c", "d", "e")), this.descendants("a"));
+    assertEquals(new HashSet<>(Arrays.asList("c", "d", "e")), this.descendants("b"));
+    assertEquals(loads + 1, this.loads.get());
+
+    assertTrue(this.index.isReachable("a", "e"));
+    assertFalse(this.index.isReachable("e", "a"));
+    assertFalse(this.index.isReachable("a", "unknown"));
+  }
+
+  @Test
+  public void testAddEdgeWithoutIndexedAncestors() throws GroundException {
+    this.store("a", "b");
+    this.index.addEdge("a", "b");
+
+    // nothing was indexed, so nothing was loaded
+    assertEquals(0, this.loads.get());
+    assertEquals(new HashSet<>(Arrays.asList("b")), this.descendants("a"));
+  }
+
+  @Test
+  public void testCycle() throws GroundException {
+    this.store("a", "b");
+    this.store("b", "c");
+    this.descendants("a");
+
+    this.store("c", "a");
+    this.index.addEdge("c", "a");
+
+    assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), this.descendants("a"));
+    assertTrue(this.index.isReachable("c", "b"));
+  }
+
+  @Test
+  public void testLimit() throws GroundException {
+    for (int i = 0; i < 10; i++) {
+      this.store("a", "b" + i);
+    }
+
+    List<String> limited = new ArrayList<>();
+    this.index.getDescendants("a", 3, limited::add);
+
+    assertEquals(3, limited.size());
+  }
+
+  @Test
+  public void testEvictsLeastRecentlyUsed() throws GroundException {
+    // each closure below takes one word for its descendants and one for its child's ancestors
+    this.index = new ReachabilityIndex(this::closure, 48, new MetricRegistry());
+    for (int i = 0; i < 4; i++) {
+      this.store("a" + i, "b" + i);
+    }
+
+    this.descendants("a0");
+    this.descendants("a1");
+    this.descendants("a2");
+    this.descendants("a0");
+    assertEquals(3, this.loads.get());
+
+    // over the budget, so the two least recently used, a1 and a2, are evicted
+    this.descendants("a3");
+    assertEquals(4, this.loads.get());
+
+    this.descendants("a0");
+    this.descendants("a3");
+    assertEquals(4, this.loads.get());
+
+    assertEquals(new HashSet<>(Arrays.asList("b1")), this.descendants("a1"));
+    assertEquals(5, this.loads.get());
+
+    // an evicted set no longer counts as an ancestor, so it isn't extended by a new edge
+    this.store("b2", "c");
+    this.index.addEdge("b2", "c");
+    assertEquals(new HashSet<>(Arrays.asList("b2", "c")), this.descendants("a2"));
+  }
+
+  @Test
+  public void testBytesGauge() throws GroundException {
+    this.store("a", "b");
+    this.descendants("a");
+
+    assertEquals(16L, this.metricRegistry.getGauges().get(MetricRegistry.name(ReachabilityIndex.class, "bytes")).getValue());
+  }
+
+  private Set<String> descendants(String nodeVersionId) throws GroundException {
+    Set<String> result = new HashSet<>();
+    this.index.getDescendants(nodeVersionId, 0, result::add);
+
+    return result;
+  }
+
+  private void store(String fromId, String toId) {
+    this.edges.computeIfAbsent(fromId, id -> new ArrayList<>()).add(toId);
+  }
+
+  private List<String> closure(String nodeVersionId) {
+    this.loads.incrementAndGet();
+
+    Set<String> reached = new LinkedHashSet<>();
+    Deque<String> frontier = new ArrayDeque<>();
+    frontier.add(nodeVersionId);
+
+    while (!frontier.isEmpty()) {
+      for (String next : this.edges.getOrDefault(frontier.poll(), new ArrayList<>())) {
+        if (reached.add(next)) {
+          frontier.add(next);
+        }
+      }
+    }
+
+    return new ArrayList<>(reached);
+  }
+}
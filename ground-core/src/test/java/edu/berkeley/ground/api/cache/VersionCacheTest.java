@@ -0,0 +1,80 @@
+package edu.berkeley.ground.api.cache;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.berkeley.ground.api.models.EdgeVersion;
+import edu.berkeley.ground.api.models.NodeVersion;
+import edu.berkeley.ground.api.models.NodeVersionFactory;
+import edu.berkeley.ground.exceptions.GroundException;
+
+import static org.junit.Assert.*;
+
+public class VersionCacheTest {
+
+  @Test
+  public void testRetrieveLoadsOnce() throws GroundException {
+    VersionCache cache = new VersionCache(1024 * 1024, new MetricRegistry());
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      NodeVersion retrieved = cache.retrieve("testId", NodeVersion.class, id -> {
+        loads.incrementAndGet();
+        return createNodeVersion(id);
+      });
+
+      assertEquals("testId", retrieved.getId());
+    }
+
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  public void testPutWarmsCache() throws GroundException {
+    VersionCache cache = new VersionCache(1024 * 1024, new MetricRegistry());
+    cache.put(createNodeVersion("testId"));
+
+    NodeVersion retrieved = cache.retrieve("testId", NodeVersion.class, id -> {
+      throw new GroundException("Unexpected load of " + id + ".");
+    });
+
+    assertEquals("testId", retrieved.getId());
+  }
+
+  @Test(expected = GroundException.class)
+  public void testRetrieveWrongType() throws GroundException {
+    VersionCache cache = new VersionCache(1024 * 1024, new MetricRegistry());
+    cache.put(createNodeVersion("testId"));
+
+    // the cached version is a NodeVersion, so this goes to the loader, which fails like a store
+    // that has no EdgeVersion with this id
+    cache.retrieve("testId", EdgeVersion.class, id -> {
+      throw new GroundException("No EdgeVersion found with id " + id + ".");
+    });
+  }
+
+  @Test
+  public void testEvictionWithinBudget() throws GroundException {
+    MetricRegistry metricRegistry = new MetricRegistry();
+    int versionSize = VersionCache.estimateSize(createNodeVersion("testId0"));
+    VersionCache cache = new VersionCache(10 * versionSize, metricRegistry);
+
+    for (int i = 0; i < 100; i++) {
+      cache.put(createNodeVersion("testId" + i));
+    }
+
+    long size = (Long) metricRegistry.getGauges().get(MetricRegistry.name(VersionCache.class, "size")).getValue();
+    long evictions = (Long) metricRegistry.getGauges().get(MetricRegistry.name(VersionCache.class, "evictions")).getValue();
+
+    assertTrue(size <= 10);
+    assertEquals(100 - size, evictions);
+  }
+
+  private static NodeVersion createNodeVersion(String id) {
+    return NodeVersionFactory.construct(id, new HashMap<>(), null, null, new HashMap<>(), "testNodeId");
+  }
+}
@@ -15,7 +15,9 @@
 package edu.berkeley.ground.api.models;
 
 import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.exceptions.GroundException;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,4 +38,32 @@ public class ModelCreateUtils {
   public static StructureVersion getStructureVersion(String id, String structureId, Map<String, GroundType> attributes) {
     return new StructureVersion(id, structureId, attributes);
   }
+
+  /**
+   * Create the graph the transitive closure tests run on: first -> second -> fourth and
+   * first -> third -> fourth, where first -> third is a "right" edge and the others are "left"
+   * edges, and a "left" edge from fourth back to first closes a cycle.
+   *
+   * @return the ids of first, second, third and fourth
+   */
+  public static List<String> createClosureGraph(NodeFactory nodeFactory, NodeVersionFactory nodeVersionFactory,
+                                                EdgeFactory edgeFactory, EdgeVersionFactory edgeVersionFactory) throws GroundException {
+    List<String> nodeVersionIds = new ArrayList<>();
+    for (String name : new String[]{"first", "second", "third", "fourth"}) {
+      String nodeId = nodeFactory.create(name).getId();
+      nodeVersionIds.add(nodeVersionFactory.create(new HashMap<>(), null, null, new HashMap<>(), nodeId,
+          new ArrayList<>()).getId());
+    }
+
+    String leftId = edgeFactory.create("left").getId();
+    String rightId = edgeFactory.create("right").getId();
+    int[][] endpoints = {{0, 1}, {0, 2}, {1, 3}, {2, 3}, {3, 0}};
+    for (int[] endpoint : endpoints) {
+      edgeVersionFactory.create(new HashMap<>(), null, null, new HashMap<>(),
+          endpoint[0] == 0 && endpoint[1] == 2 ? rightId : leftId,
+          nodeVersionIds.get(endpoint[0]), nodeVersionIds.get(endpoint[1]), new ArrayList<>());
+    }
+
+    return nodeVersionIds;
+  }
 }
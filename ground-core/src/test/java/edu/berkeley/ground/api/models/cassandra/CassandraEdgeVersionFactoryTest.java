@@ -4,6 +4,7 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import edu.berkeley.ground.api.CassandraTest;
@@ -87,4 +88,25 @@ public class CassandraEdgeVersionFactoryTest extends CassandraTest {
       fail(ge.getMessage());
     }
   }
+
+  @Test
+  public void testAdjacentNodesByEndpoint() throws GroundException {
+    String firstTestNodeId = super.factories.getNodeFactory().create("firstTestNode").getId();
+    String firstNodeVersionId = super.factories.getNodeVersionFactory().create(new HashMap<>(),
+        null, null, new HashMap<>(), firstTestNodeId, new ArrayList<>()).getId();
+
+    String secondTestNodeId = super.factories.getNodeFactory().create("secondTestNode").getId();
+    String secondNodeVersionId = super.factories.getNodeVersionFactory().create(new HashMap<>(),
+        null, null, new HashMap<>(), secondTestNodeId, new ArrayList<>()).getId();
+
+    String edgeId = super.factories.getEdgeFactory().create("testEdge").getId();
+    super.factories.getEdgeVersionFactory().create(new HashMap<>(), null, null, new HashMap<>(),
+        edgeId, firstNodeVersionId, secondNodeVersionId, new ArrayList<>());
+
+    List<String> adjacent = super.factories.getNodeVersionFactory().getAdjacentNodes(firstNodeVersionId, "testEdge");
+
+    assertEquals(1, adjacent.size());
+    assertEquals(secondNodeVersionId, adjacent.get(0));
+    assertTrue(super.factories.getNodeVersionFactory().getAdjacentNodes(secondNodeVersionId, "testEdge").isEmpty());
+  }
 }
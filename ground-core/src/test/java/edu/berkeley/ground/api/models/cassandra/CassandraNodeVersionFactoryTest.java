@@ -1,5 +1,7 @@
 package edu.berkeley.ground.api.models.cassandra;
 
+import com.codahale.metrics.MetricRegistry;
+
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -8,9 +10,11 @@ import java.util.List;
 import java.util.Map;
 
 import edu.berkeley.ground.api.CassandraTest;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.db.CassandraClient;
 import edu.berkeley.ground.exceptions.GroundException;
 
 import static org.junit.Assert.*;
@@ -76,4 +80,76 @@ public class CassandraNodeVersionFactoryTest extends CassandraTest {
     assertTrue(leaves.contains(nodeVersionId));
     assertTrue(1 == leaves.size());
   }
+
+  @Test
+  public void testNodeVersionCreationWithManyWrites() throws GroundException {
+    String nodeId = super.factories.getNodeFactory().create("testNode").getId();
+
+    // enough tags that the writes overflow a connection's window of pending writes
+    Map<String, Tag> tags = new HashMap<>();
+    for (int i = 0; i < 200; i++) {
+      tags.put("field" + i, new Tag(null, "field" + i, i, GroundType.INTEGER));
+    }
+
+    String nodeVersionId = super.factories.getNodeVersionFactory().create(tags, null, null,
+        new HashMap<>(), nodeId, new ArrayList<>()).getId();
+
+    NodeVersion retrieved = super.factories.getNodeVersionFactory().retrieveFromDatabase(nodeVersionId);
+
+    assertEquals(tags.size(), retrieved.getTags().size());
+    assertEquals(1, super.factories.getNodeFactory().getLeaves("testNode").size());
+  }
+
+  @Test
+  public void testClosureFollowsOtherServers() throws Exception {
+    // a second server, which only learns about the versions below through the graph log
+    CassandraClient otherClient = new CassandraClient("localhost", 9160, "test", "test", "", 2, 8,
+        1024, 32, null, 0, 100, new MetricRegistry());
+    otherClient.start();
+
+    try {
+      String nodeId = super.factories.getNodeFactory().create("testNode").getId();
+      String firstId = super.factories.getNodeVersionFactory().create(new HashMap<>(), null, null,
+          new HashMap<>(), nodeId, new ArrayList<>()).getId();
+      String secondId = super.factories.getNodeVersionFactory().create(new HashMap<>(), null, null,
+          new HashMap<>(), nodeId, new ArrayList<>()).getId();
+
+      String edgeId = super.factories.getEdgeFactory().create("testEdge").getId();
+      super.factories.getEdgeVersionFactory().create(new HashMap<>(), null, null, new HashMap<>(),
+          edgeId, firstId, secondId, new ArrayList<>());
+
+      List<String> closure = null;
+      long deadline = System.currentTimeMillis() + 10000;
+      while (System.currentTimeMillis() < deadline) {
+        try {
+          closure = otherClient.getConnection().transitiveClosure(firstId);
+
+          if (closure.contains(secondId)) {
+            break;
+          }
+        } catch (IllegalArgumentException e) {
+          // the first version hasn't been seen yet
+        }
+
+        Thread.sleep(100);
+      }
+
+      assertNotNull(closure);
+      assertTrue(closure.contains(secondId));
+    } finally {
+      otherClient.stop();
+    }
+  }
+
+  @Test
+  public void testTransitiveClosure() throws GroundException {
+    List<String> nodeVersionIds = ModelCreateUtils.createClosureGraph(super.factories.getNodeFactory(),
+        super.factories.getNodeVersionFactory(), super.factories.getEdgeFactory(), super.factories.getEdgeVersionFactory());
+    String start = nodeVersionIds.get(0);
+
+    // every node version is returned once, including the start, which is reachable through the cycle
+    List<String> closure = super.factories.getNodeVersionFactory().getTransitiveClosure(start);
+    assertEquals(4, closure.size());
+    assertTrue(closure.containsAll(nodeVersionIds));
+  }
 }
@@ -132,4 +132,49 @@ public class CassandraRichVersionFactoryTest extends CassandraTest {
     super.richVersionFactory.insertIntoDatabase(connection, id, tags, structureVersionId, null,
         new HashMap<>());
   }
+
+  @Test
+  public void testCachedStructureVersionChecks() throws GroundException {
+    CassandraConnection connection = super.cassandraClient.getConnection();
+
+    String structureId = super.factories.getStructureFactory().create("testStructure").getId();
+
+    Map<String, GroundType> structureVersionAttributes = new HashMap<>();
+    structureVersionAttributes.put("intfield", GroundType.INTEGER);
+    structureVersionAttributes.put("strfield", GroundType.STRING);
+
+    String structureVersionId = super.factories.getStructureVersionFactory().create(
+        structureId, structureVersionAttributes, new ArrayList<>()).getId();
+
+    Map<String, Tag> tags = new HashMap<>();
+    tags.put("intfield", new Tag(null, "intfield", 1, GroundType.INTEGER));
+    tags.put("strfield", new Tag(null, "strfield", "1", GroundType.STRING));
+
+    // the first insert compiles the StructureVersion's schema; the later ones use the cached copy
+    super.richVersionFactory.insertIntoDatabase(connection, "testRVid", tags, structureVersionId,
+        null, new HashMap<>());
+
+    Map<String, Tag> missingTags = new HashMap<>();
+    missingTags.put("intfield", new Tag(null, "intfield", 1, GroundType.INTEGER));
+
+    try {
+      super.richVersionFactory.insertIntoDatabase(connection, "testRVid2", missingTags,
+          structureVersionId, null, new HashMap<>());
+      fail("A missing tag was accepted.");
+    } catch (GroundException ge) {
+      assertEquals("No tag with key strfield was specified.", ge.getMessage());
+    }
+
+    Map<String, Tag> mistypedTags = new HashMap<>();
+    mistypedTags.put("intfield", new Tag(null, "intfield", "1", GroundType.STRING));
+    mistypedTags.put("strfield", new Tag(null, "strfield", "1", GroundType.STRING));
+
+    try {
+      super.richVersionFactory.insertIntoDatabase(connection, "testRVid3", mistypedTags,
+          structureVersionId, null, new HashMap<>());
+      fail("A tag of the wrong type was accepted.");
+    } catch (GroundException ge) {
+      assertEquals("Tag with key intfield did not have a value of the correct type.", ge.getMessage());
+    }
+  }
 }
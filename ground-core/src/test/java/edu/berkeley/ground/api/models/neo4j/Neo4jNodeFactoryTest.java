@@ -25,4 +25,16 @@ public class Neo4jNodeFactoryTest extends Neo4jTest {
     assertEquals(testName, node.getName());
     assertEquals("Nodes." + testName, node.getId());
   }
+
+  @Test
+  public void testNodeCreationWithQuote() throws GroundException {
+    String testName = "test's \"node\"";
+    Neo4jNodeFactory nodeFactory = (Neo4jNodeFactory) super.factories.getNodeFactory();
+    nodeFactory.create(testName);
+
+    Node node = nodeFactory.retrieveFromDatabase(testName);
+
+    assertEquals(testName, node.getName());
+    assertEquals("Nodes." + testName, node.getId());
+  }
 }
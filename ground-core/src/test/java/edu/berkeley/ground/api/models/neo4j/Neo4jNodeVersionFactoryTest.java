@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 
 import edu.berkeley.ground.api.Neo4jTest;
+import edu.berkeley.ground.api.models.ClosureBounds;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.GroundType;
@@ -76,4 +78,114 @@ public class Neo4jNodeVersionFactoryTest extends Neo4jTest {
     assertTrue(leaves.contains(nodeVersionId));
     assertTrue(1 == leaves.size());
   }
+
+  @Test
+  public void testBatchNodeVersionCreation() throws GroundException {
+    String firstId = super.factories.getNodeFactory().create("first").getId();
+    String secondId = super.factories.getNodeFactory().create("second").getId();
+
+    Map<String, Tag> tags = new HashMap<>();
+    tags.put("strfield", new Tag(null, "strfield", "1", GroundType.STRING));
+
+    Map<String, String> parameters = new HashMap<>();
+    parameters.put("http", "GET");
+
+    List<NodeVersion> nodeVersions = new ArrayList<>();
+    nodeVersions.add(new NodeVersion(null, tags, null, "http://www.google.com", parameters, firstId));
+    nodeVersions.add(new NodeVersion(null, new HashMap<>(), null, null, new HashMap<>(), firstId));
+    nodeVersions.add(new NodeVersion(null, new HashMap<>(), null, null, new HashMap<>(), secondId));
+
+    List<NodeVersion> created = super.factories.getNodeVersionFactory().create(nodeVersions, new ArrayList<>());
+    assertEquals(3, created.size());
+
+    NodeVersion retrieved = super.factories.getNodeVersionFactory().retrieveFromDatabase(created.get(0).getId());
+    assertEquals(firstId, retrieved.getNodeId());
+    assertEquals("http://www.google.com", retrieved.getReference());
+    assertEquals(parameters, retrieved.getParameters());
+    assertEquals(tags.get("strfield").getValue(), retrieved.getTags().get("strfield").getValue());
+
+    List<String> firstLeaves = super.factories.getNodeFactory().getLeaves("first");
+    assertEquals(2, firstLeaves.size());
+    assertTrue(firstLeaves.contains(created.get(0).getId()));
+    assertTrue(firstLeaves.contains(created.get(1).getId()));
+
+    List<String> secondLeaves = super.factories.getNodeFactory().getLeaves("second");
+    assertEquals(1, secondLeaves.size());
+    assertTrue(secondLeaves.contains(created.get(2).getId()));
+
+    // a batch with parents replaces them as leaves
+    List<String> parentIds = new ArrayList<>();
+    parentIds.add(created.get(0).getId());
+
+    List<NodeVersion> children = new ArrayList<>();
+    children.add(new NodeVersion(null, new HashMap<>(), null, null, new HashMap<>(), firstId));
+    String childId = super.factories.getNodeVersionFactory().create(children, parentIds).get(0).getId();
+
+    firstLeaves = super.factories.getNodeFactory().getLeaves("first");
+    assertEquals(2, firstLeaves.size());
+    assertTrue(firstLeaves.contains(childId));
+    assertTrue(firstLeaves.contains(created.get(1).getId()));
+  }
+
+  @Test
+  public void testStreamedTransitiveClosure() throws GroundException {
+    List<String> nodeVersionIds = new ArrayList<>();
+    for (String name : new String[]{"first", "second", "third"}) {
+      String nodeId = super.factories.getNodeFactory().create(name).getId();
+      nodeVersionIds.add(super.factories.getNodeVersionFactory().create(new HashMap<>(), null, null,
+          new HashMap<>(), nodeId, new ArrayList<>()).getId());
+    }
+
+    String edgeId = super.factories.getEdgeFactory().create("testEdge").getId();
+    for (int i = 0; i < 2; i++) {
+      super.factories.getEdgeVersionFactory().create(new HashMap<>(), null, null, new HashMap<>(),
+          edgeId, nodeVersionIds.get(i), nodeVersionIds.get(i + 1), new ArrayList<>());
+    }
+
+    List<String> streamed = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(nodeVersionIds.get(0), ClosureBounds.UNBOUNDED, streamed::add);
+
+    assertTrue(streamed.contains(nodeVersionIds.get(1)));
+    assertTrue(streamed.contains(nodeVersionIds.get(2)));
+    assertEquals(super.factories.getNodeVersionFactory().getTransitiveClosure(nodeVersionIds.get(0)), streamed);
+
+    List<String> adjacent = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getAdjacentNodes(nodeVersionIds.get(0), "testEdge", adjacent::add);
+
+    assertEquals(1, adjacent.size());
+    assertEquals(nodeVersionIds.get(1), adjacent.get(0));
+  }
+
+  @Test
+  public void testBoundedTransitiveClosure() throws GroundException {
+    List<String> nodeVersionIds = ModelCreateUtils.createClosureGraph(super.factories.getNodeFactory(),
+        super.factories.getNodeVersionFactory(), super.factories.getEdgeFactory(), super.factories.getEdgeVersionFactory());
+    String start = nodeVersionIds.get(0);
+
+    // every node version is returned once, including the start, which is reachable through the cycle
+    List<String> closure = super.factories.getNodeVersionFactory().getTransitiveClosure(start);
+    assertEquals(4, closure.size());
+    assertTrue(closure.containsAll(nodeVersionIds));
+
+    List<String> shallow = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(1, null, 0, 0), shallow::add);
+    assertEquals(2, shallow.size());
+    assertTrue(shallow.containsAll(nodeVersionIds.subList(1, 3)));
+
+    List<String> filtered = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(2, "left", 0, 0), filtered::add);
+    assertEquals(2, filtered.size());
+    assertTrue(filtered.contains(nodeVersionIds.get(1)));
+    assertTrue(filtered.contains(nodeVersionIds.get(3)));
+
+    // an alternation only has to match part of the edge id, as with a single pattern
+    List<String> alternated = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(1, "missing|right", 0, 0), alternated::add);
+    assertEquals(1, alternated.size());
+    assertEquals(nodeVersionIds.get(2), alternated.get(0));
+
+    List<String> limited = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(0, null, 1, 0), limited::add);
+    assertEquals(1, limited.size());
+  }
 }
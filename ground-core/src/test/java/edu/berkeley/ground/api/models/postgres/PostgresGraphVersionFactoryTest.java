@@ -98,4 +98,43 @@ public class PostgresGraphVersionFactoryTest extends PostgresTest {
       assertEquals(tags.get(key), retrievedTags.get(key));
     }
   }
+
+  @Test
+  public void testGraphVersionBulkCreation() throws GroundException {
+    String firstTestNode = "firstTestNode";
+    String firstTestNodeId = super.factories.getNodeFactory().create(firstTestNode).getId();
+    String firstNodeVersionId = super.factories.getNodeVersionFactory().create(new HashMap<>(),
+        null, null, new HashMap<>(), firstTestNodeId, new ArrayList<>()).getId();
+
+    String secondTestNode = "secondTestNode";
+    String secondTestNodeId = super.factories.getNodeFactory().create(secondTestNode).getId();
+    String secondNodeVersionId = super.factories.getNodeVersionFactory().create(new HashMap<>(),
+        null, null, new HashMap<>(), secondTestNodeId, new ArrayList<>()).getId();
+
+    String edgeName = "testEdge";
+    String edgeId = super.factories.getEdgeFactory().create(edgeName).getId();
+
+    List<String> edgeVersionIds = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      edgeVersionIds.add(super.factories.getEdgeVersionFactory().create(new HashMap<>(),
+          null, null, new HashMap<>(), edgeId, firstNodeVersionId, secondNodeVersionId,
+          new ArrayList<>()).getId());
+    }
+
+    String graphName = "testGraph";
+    String graphId = super.factories.getGraphFactory().create(graphName).getId();
+
+    String graphVersionId = super.factories.getGraphVersionFactory().createBulk(new HashMap<>(),
+        null, null, new HashMap<>(), graphId, edgeVersionIds, new ArrayList<>()).getId();
+
+    GraphVersion retrieved = super.factories.getGraphVersionFactory().retrieveFromDatabase(graphVersionId);
+
+    assertEquals(graphId, retrieved.getGraphId());
+    assertEquals(edgeVersionIds.size(), retrieved.getEdgeVersionIds().size());
+
+    List<String> retrievedEdgeVersionIds = retrieved.getEdgeVersionIds();
+    for (String id : edgeVersionIds) {
+      assert (retrievedEdgeVersionIds).contains(id);
+    }
+  }
 }
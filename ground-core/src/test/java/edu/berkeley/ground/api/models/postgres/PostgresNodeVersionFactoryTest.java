@@ -8,6 +8,8 @@ import java.util.List;
 import java.util.Map;
 
 import edu.berkeley.ground.api.PostgresTest;
+import edu.berkeley.ground.api.models.ClosureBounds;
+import edu.berkeley.ground.api.models.ModelCreateUtils;
 import edu.berkeley.ground.api.models.NodeVersion;
 import edu.berkeley.ground.api.models.Tag;
 import edu.berkeley.ground.api.versions.GroundType;
@@ -76,4 +78,64 @@ public class PostgresNodeVersionFactoryTest extends PostgresTest {
     assertTrue(leaves.contains(nodeVersionId));
     assertTrue(1 == leaves.size());
   }
+
+  @Test
+  public void testTransitiveClosure() throws GroundException {
+    List<String> nodeVersionIds = ModelCreateUtils.createClosureGraph(super.factories.getNodeFactory(),
+        super.factories.getNodeVersionFactory(), super.factories.getEdgeFactory(), super.factories.getEdgeVersionFactory());
+    String start = nodeVersionIds.get(0);
+
+    // every node version is returned once, including the start, which is reachable through the cycle
+    List<String> closure = super.factories.getNodeVersionFactory().getTransitiveClosure(start);
+    assertEquals(4, closure.size());
+    assertTrue(closure.containsAll(nodeVersionIds));
+
+    List<String> shallow = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(1, null, 0, 0), shallow::add);
+    assertEquals(2, shallow.size());
+    assertTrue(shallow.containsAll(nodeVersionIds.subList(1, 3)));
+
+    List<String> filtered = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(2, "left", 0, 0), filtered::add);
+    assertEquals(2, filtered.size());
+    assertTrue(filtered.contains(nodeVersionIds.get(1)));
+    assertTrue(filtered.contains(nodeVersionIds.get(3)));
+
+    // an alternation only has to match part of the edge id, as with a single pattern
+    List<String> alternated = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(1, "missing|right", 0, 0), alternated::add);
+    assertEquals(1, alternated.size());
+    assertEquals(nodeVersionIds.get(2), alternated.get(0));
+
+    List<String> limited = new ArrayList<>();
+    super.factories.getNodeVersionFactory().getTransitiveClosure(start, new ClosureBounds(0, null, 1, 0), limited::add);
+    assertEquals(1, limited.size());
+  }
+
+  @Test
+  public void testClosureTimeoutCoversReading() throws GroundException {
+    List<String> nodeVersionIds = ModelCreateUtils.createClosureGraph(super.factories.getNodeFactory(),
+        super.factories.getNodeVersionFactory(), super.factories.getEdgeFactory(), super.factories.getEdgeVersionFactory());
+
+    // the query itself finishes well within the timeout; reading its four rows doesn't
+    List<String> read = new ArrayList<>();
+    try {
+      super.factories.getNodeVersionFactory().getTransitiveClosure(nodeVersionIds.get(0),
+          new ClosureBounds(0, null, 0, 200), id -> {
+            try {
+              Thread.sleep(100);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+
+            read.add(id);
+          });
+
+      fail("The closure didn't time out.");
+    } catch (GroundException e) {
+      assertTrue(e.getMessage().contains("timed out"));
+    }
+
+    assertTrue(read.size() < nodeVersionIds.size());
+  }
 }
@@ -6,9 +6,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 import edu.berkeley.ground.api.CassandraTest;
+import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.api.versions.VersionHistoryDAG;
 import edu.berkeley.ground.api.versions.VersionSuccessor;
 import edu.berkeley.ground.db.CassandraClient.CassandraConnection;
+import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.exceptions.GroundException;
 
 import static org.junit.Assert.*;
@@ -203,4 +205,70 @@ public class CassandraItemFactoryTest extends CassandraTest {
 
     // No need to check the version successors because we have tests for those.
   }
+
+  @Test
+  public void testLeavesTrackedOnUpdate() throws GroundException {
+    String testId = "Nodes.test";
+    CassandraConnection connection = super.cassandraClient.getConnection();
+
+    super.itemFactory.insertIntoDatabase(connection, testId);
+
+    String parentOne = "parentOneId";
+    String parentTwo = "parentTwoId";
+    String child = "childId";
+
+    super.versionFactory.insertIntoDatabase(connection, parentOne);
+    super.versionFactory.insertIntoDatabase(connection, parentTwo);
+    super.versionFactory.insertIntoDatabase(connection, child);
+
+    super.itemFactory.update(connection, testId, parentOne, new ArrayList<>());
+    super.itemFactory.update(connection, testId, parentTwo, new ArrayList<>());
+
+    List<String> leaves = super.itemFactory.getLeaves(connection, testId);
+    assertEquals(2, leaves.size());
+    assertTrue(leaves.contains(parentOne));
+    assertTrue(leaves.contains(parentTwo));
+
+    List<String> parentIds = new ArrayList<>();
+    parentIds.add(parentOne);
+    super.itemFactory.update(connection, testId, child, parentIds);
+
+    leaves = super.itemFactory.getLeaves(connection, testId);
+    assertEquals(2, leaves.size());
+    assertTrue(leaves.contains(parentTwo));
+    assertTrue(leaves.contains(child));
+  }
+
+  @Test
+  public void testUntrackedLeavesKeptOnUpdate() throws GroundException {
+    String testId = "Nodes.test";
+    CassandraConnection connection = super.cassandraClient.getConnection();
+
+    super.itemFactory.insertIntoDatabase(connection, testId);
+
+    String parentOne = "parentOneId";
+    String parentTwo = "parentTwoId";
+    String child = "childId";
+
+    super.versionFactory.insertIntoDatabase(connection, parentOne);
+    super.versionFactory.insertIntoDatabase(connection, parentTwo);
+    super.versionFactory.insertIntoDatabase(connection, child);
+
+    super.itemFactory.update(connection, testId, parentOne, new ArrayList<>());
+    super.itemFactory.update(connection, testId, parentTwo, new ArrayList<>());
+
+    // as if both versions had been created before leaves were tracked
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("item_id", GroundType.STRING, testId));
+    connection.delete("ItemLeaves", predicates);
+
+    List<String> parentIds = new ArrayList<>();
+    parentIds.add(parentOne);
+    super.itemFactory.update(connection, testId, child, parentIds);
+
+    List<String> leaves = super.itemFactory.getLeaves(connection, testId);
+    assertEquals(2, leaves.size());
+    assertTrue(leaves.contains(parentTwo));
+    assertTrue(leaves.contains(child));
+  }
 }
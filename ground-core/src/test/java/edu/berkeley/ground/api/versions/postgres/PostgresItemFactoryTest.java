@@ -6,8 +6,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import edu.berkeley.ground.api.PostgresTest;
+import edu.berkeley.ground.api.versions.GroundType;
 import edu.berkeley.ground.api.versions.VersionHistoryDAG;
 import edu.berkeley.ground.api.versions.VersionSuccessor;
+import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
 import edu.berkeley.ground.exceptions.GroundException;
 
@@ -249,4 +251,79 @@ public class PostgresItemFactoryTest extends PostgresTest {
       connection.abort();
     }
   }
+
+  @Test
+  public void testLeavesTrackedOnUpdate() throws GroundException {
+    PostgresConnection connection = null;
+    try {
+      String testId = "Nodes.test";
+      connection = super.cassandraClient.getConnection();
+
+      super.itemFactory.insertIntoDatabase(connection, testId);
+
+      String parentOne = "parentOneId";
+      String parentTwo = "parentTwoId";
+      String child = "childId";
+
+      super.versionFactory.insertIntoDatabase(connection, parentOne);
+      super.versionFactory.insertIntoDatabase(connection, parentTwo);
+      super.versionFactory.insertIntoDatabase(connection, child);
+
+      super.itemFactory.update(connection, testId, parentOne, new ArrayList<>());
+      super.itemFactory.update(connection, testId, parentTwo, new ArrayList<>());
+
+      List<String> leaves = super.itemFactory.getLeaves(connection, testId);
+      assertEquals(2, leaves.size());
+      assertTrue(leaves.contains(parentOne));
+      assertTrue(leaves.contains(parentTwo));
+
+      List<String> parentIds = new ArrayList<>();
+      parentIds.add(parentOne);
+      super.itemFactory.update(connection, testId, child, parentIds);
+
+      leaves = super.itemFactory.getLeaves(connection, testId);
+      assertEquals(2, leaves.size());
+      assertTrue(leaves.contains(parentTwo));
+      assertTrue(leaves.contains(child));
+    } finally {
+      connection.abort();
+    }
+  }
+
+  @Test
+  public void testUntrackedLeavesKeptOnUpdate() throws GroundException {
+    String testId = "Nodes.test";
+    PostgresConnection connection = super.cassandraClient.getConnection();
+
+    try {
+      super.itemFactory.insertIntoDatabase(connection, testId);
+
+      String parentOne = "parentOneId";
+      String parentTwo = "parentTwoId";
+      String child = "childId";
+
+      super.versionFactory.insertIntoDatabase(connection, parentOne);
+      super.versionFactory.insertIntoDatabase(connection, parentTwo);
+      super.versionFactory.insertIntoDatabase(connection, child);
+
+      super.itemFactory.update(connection, testId, parentOne, new ArrayList<>());
+      super.itemFactory.update(connection, testId, parentTwo, new ArrayList<>());
+
+      // as if both versions had been created before leaves were tracked
+      List<DbDataContainer> predicates = new ArrayList<>();
+      predicates.add(new DbDataContainer("item_id", GroundType.STRING, testId));
+      connection.delete("ItemLeaves", predicates);
+
+      List<String> parentIds = new ArrayList<>();
+      parentIds.add(parentOne);
+      super.itemFactory.update(connection, testId, child, parentIds);
+
+      List<String> leaves = super.itemFactory.getLeaves(connection, testId);
+      assertEquals(2, leaves.size());
+      assertTrue(leaves.contains(parentTwo));
+      assertTrue(leaves.contains(child));
+    } finally {
+      connection.abort();
+    }
+  }
 }
@@ -0,0 +1,95 @@
+package edu.berkeley.ground.db;
+
+import com.datastax.driver.core.Cluster;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the migration against a keyspace created from the original cassandra.sql, which is kept
+ * in src/test/resources/cassandra/baseline.sql.
+ */
+public class CassandraMigrationCommandTest {
+  private static String TEST_DB_NAME = "test";
+
+  private Cluster cluster;
+  private Session session;
+
+  @Before
+  public void setup() throws IOException, InterruptedException {
+    exec("cqlsh -k " + TEST_DB_NAME + " -f drop_cassandra.sql", "scripts/cassandra/");
+    exec("cqlsh -k " + TEST_DB_NAME + " -f baseline.sql", "src/test/resources/cassandra/");
+
+    this.cluster = Cluster.builder().addContactPoint("localhost").build();
+    this.session = this.cluster.connect(TEST_DB_NAME);
+
+    // an item with two branches, a -> c and b, written the way the original schema stored them
+    this.session.execute("insert into Items (id) values ('Nodes.test');");
+    this.session.execute("insert into Nodes (item_id, name) values ('Nodes.test', 'test');");
+
+    String[][] successors = {{"s1", "EMPTY", "a"}, {"s2", "EMPTY", "b"}, {"s3", "a", "c"}};
+    for (String[] successor : successors) {
+      this.session.execute("insert into VersionSuccessors (successor_id, vfrom, vto) values (?, ?, ?);",
+          successor[0], successor[1], successor[2]);
+      this.session.execute("insert into VersionHistoryDAGs (item_id, successor_id) values ('Nodes.test', ?);",
+          successor[0]);
+    }
+
+    this.session.execute("insert into EdgeVersions (id, edge_id, endpoint_one, endpoint_two) values ('ev', 'Edges.test', 'a', 'c');");
+    this.session.execute("insert into Tags (richversion_id, key, value, type) values ('a', 'testKey', 'testValue', 'string');");
+  }
+
+  @After
+  public void tearDown() {
+    this.session.close();
+    this.cluster.close();
+  }
+
+  @Test
+  public void testMigrateBaselineKeyspace() {
+    CassandraMigrationCommand.migrate(this.session);
+
+    // a second run must neither fail nor change anything
+    CassandraMigrationCommand.migrate(this.session);
+
+    for (Row row : this.session.execute("select successor_id, vfrom, vto from VersionHistoryDAGs where item_id = 'Nodes.test';")) {
+      Row successor = this.session.execute("select vfrom, vto from VersionSuccessors where successor_id = ?;",
+          row.getString("successor_id")).one();
+
+      assertEquals(successor.getString("vfrom"), row.getString("vfrom"));
+      assertEquals(successor.getString("vto"), row.getString("vto"));
+    }
+
+    Set<String> leaves = new HashSet<>();
+    for (Row row : this.session.execute("select version_id from ItemLeaves where item_id = 'Nodes.test';")) {
+      leaves.add(row.getString("version_id"));
+    }
+
+    Set<String> expectedLeaves = new HashSet<>();
+    expectedLeaves.add("b");
+    expectedLeaves.add("c");
+    assertEquals(expectedLeaves, leaves);
+
+    assertEquals("Nodes.test", this.session.execute("select item_id from NodesByName where name = 'test';").one().getString(0));
+    assertEquals("ev", this.session.execute("select id from EdgeVersionsByEndpoint where endpoint_one = 'a';").one().getString(0));
+    assertEquals("a", this.session.execute("select richversion_id from TagsByKey where key = 'testKey';").one().getString(0));
+    assertNull(this.session.execute("select * from GraphLog limit 1;").one());
+  }
+
+  private static void exec(String command, String directory) throws IOException, InterruptedException {
+    Process p = Runtime.getRuntime().exec(command, null, new File(directory));
+    p.waitFor();
+
+    p.destroy();
+  }
+}
@@ -0,0 +1,156 @@
+package edu.berkeley.ground.db;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import edu.berkeley.ground.api.models.ClosureBounds;
+import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+
+/**
+ * Measures transitive closures on a synthetic lineage graph: a DAG in which each node version has
+ * FANOUT edges to node versions at most WINDOW positions after it. Runs against the same local
+ * "test" database as the Postgres tests, and removes the graph afterwards.
+ *
+ * Setup also checks, with EXPLAIN, that the closure query looks edges up through the
+ * EdgeVersions(endpoint_one, endpoint_two) index instead of scanning the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PostgresClosureBenchmark {
+  private static final String URL = "jdbc:postgresql://localhost:5432/test";
+  private static final int FANOUT = 4;
+  private static final int WINDOW = 64;
+
+  @Param({"1000000"})
+  public int edges;
+
+  private PostgresClient client;
+  private int nodeVersions;
+
+  @Setup
+  public void setup() throws SQLException {
+    this.nodeVersions = this.edges / FANOUT + 1;
+
+    try (Connection connection = DriverManager.getConnection(URL, "test", "");
+         Statement statement = connection.createStatement()) {
+      statement.execute("insert into Items(id) values ('Nodes.benchmark'), ('Edges.benchmark');");
+      statement.execute("insert into Nodes(item_id, name) values ('Nodes.benchmark', 'benchmark');");
+      statement.execute("insert into Edges(item_id, name) values ('Edges.benchmark', 'benchmark');");
+
+      String nodeVersionIds = "select 'benchmark.nv' || i as id from generate_series(0, " + (this.nodeVersions - 1) + ") i";
+      statement.execute("insert into Versions(id) " + nodeVersionIds + ";");
+      statement.execute("insert into RichVersions(id) " + nodeVersionIds + ";");
+      statement.execute("insert into NodeVersions(id, node_id) select id, 'Nodes.benchmark' from (" + nodeVersionIds + ") n;");
+
+      // edge e leaves node version e / FANOUT for one of the next WINDOW node versions
+      String edgeVersions = "select 'benchmark.ev' || e as id, e / " + FANOUT + " as source, "
+          + "least(e / " + FANOUT + " + 1 + (e * 7919) % " + WINDOW + ", " + (this.nodeVersions - 1) + ") as destination "
+          + "from generate_series(0, " + (this.edges - 1) + ") e";
+      statement.execute("insert into Versions(id) select id from (" + edgeVersions + ") e;");
+      statement.execute("insert into RichVersions(id) select id from (" + edgeVersions + ") e;");
+      statement.execute("insert into EdgeVersions(id, edge_id, endpoint_one, endpoint_two) "
+          + "select id, 'Edges.benchmark', 'benchmark.nv' || source, 'benchmark.nv' || destination from (" + edgeVersions + ") e;");
+
+      statement.execute("analyze EdgeVersions;");
+      checkPlan(connection);
+    }
+
+    this.client = new PostgresClient("localhost", 5432, "test", "test", "", 4, 4, 30000, 256,
+        new MetricRegistry());
+  }
+
+  private static void checkPlan(Connection connection) throws SQLException {
+    for (boolean boundedDepth : new boolean[]{false, true}) {
+      String query = "explain " + PostgresClient.getClosureStatement(boundedDepth, false, false);
+
+      try (PreparedStatement statement = connection.prepareStatement(query)) {
+        statement.setString(1, "benchmark.nv0");
+        if (boundedDepth) {
+          statement.setInt(2, 3);
+        }
+
+        StringBuilder plan = new StringBuilder();
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            plan.append(resultSet.getString(1)).append("\n");
+          }
+        }
+
+        if (!plan.toString().contains("edgeversionsbyendpointone") || plan.toString().contains("Seq Scan on edgeversions")) {
+          throw new IllegalStateException("The closure query doesn't use the EdgeVersions index:\n" + plan);
+        }
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.client.stop();
+
+    try (Connection connection = DriverManager.getConnection(URL, "test", "");
+         Statement statement = connection.createStatement()) {
+      statement.execute("delete from EdgeVersions where id like 'benchmark.%';");
+      statement.execute("delete from NodeVersions where id like 'benchmark.%';");
+      statement.execute("delete from RichVersions where id like 'benchmark.%';");
+      statement.execute("delete from Versions where id like 'benchmark.%';");
+      statement.execute("delete from Nodes where item_id = 'Nodes.benchmark';");
+      statement.execute("delete from Edges where item_id = 'Edges.benchmark';");
+      statement.execute("delete from Items where id in ('Nodes.benchmark', 'Edges.benchmark');");
+    }
+  }
+
+  private void closure(String start, ClosureBounds bounds, Blackhole blackhole) throws GroundException {
+    PostgresConnection connection = this.client.getConnection();
+    connection.transitiveClosure(start, bounds, blackhole::consume);
+    connection.commit();
+  }
+
+  @Benchmark
+  public void fullClosure(Blackhole blackhole) throws GroundException {
+    // start near the end, so that the closure is a few thousand node versions rather than all of them
+    this.closure("benchmark.nv" + (this.nodeVersions - 5000), ClosureBounds.UNBOUNDED, blackhole);
+  }
+
+  @Benchmark
+  public void depthBoundedClosure(Blackhole blackhole) throws GroundException {
+    this.closure("benchmark.nv0", new ClosureBounds(3, null, 0, 0), blackhole);
+  }
+
+  @Benchmark
+  public void limitedClosure(Blackhole blackhole) throws GroundException {
+    this.closure("benchmark.nv0", new ClosureBounds(0, null, 1000, 0), blackhole);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(PostgresClosureBenchmark.class.getSimpleName())
+        .forks(1)
+        .build();
+
+    new Runner(options).run();
+  }
+}
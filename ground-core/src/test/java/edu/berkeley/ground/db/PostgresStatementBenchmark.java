@@ -0,0 +1,86 @@
+package edu.berkeley.ground.db;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.db.PostgresClient.PostgresConnection;
+import edu.berkeley.ground.exceptions.GroundException;
+
+/**
+ * Compares PostgresConnection inserts and lookups with and without the prepared statement cache.
+ * Runs against the same local "test" database as the Postgres tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostgresStatementBenchmark {
+  @Param({"0", "256"})
+  public int statementCacheSize;
+
+  private PostgresClient client;
+  private AtomicLong counter;
+
+  @Setup
+  public void setup() {
+    this.client = new PostgresClient("localhost", 5432, "test", "test", "", 4, 4, 30000,
+        this.statementCacheSize, new MetricRegistry());
+    this.counter = new AtomicLong();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.client.stop();
+  }
+
+  @Benchmark
+  public void insert() throws GroundException {
+    PostgresConnection connection = this.client.getConnection();
+
+    List<DbDataContainer> insertions = new ArrayList<>();
+    insertions.add(new DbDataContainer("id", GroundType.STRING, "benchmark" + this.counter.incrementAndGet()));
+    connection.insert("Versions", insertions);
+
+    // roll back so the table doesn't grow over the run
+    connection.abort();
+  }
+
+  @Benchmark
+  public String equalitySelect() throws GroundException {
+    PostgresConnection connection = this.client.getConnection();
+
+    List<DbDataContainer> predicates = new ArrayList<>();
+    predicates.add(new DbDataContainer("id", GroundType.STRING, "EMPTY"));
+    String id = connection.equalitySelect("Versions", DBClient.SELECT_STAR, predicates).getString(1);
+
+    connection.commit();
+    return id;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(PostgresStatementBenchmark.class.getSimpleName())
+        .forks(1)
+        .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,100 @@
+package edu.berkeley.ground.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GraphSnapshotTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    VersionGraph graph = new VersionGraph();
+    for (int i = 0; i < 1000; i++) {
+      graph.addVertex("id" + i);
+
+      if (i > 0) {
+        graph.addEdge("id" + (i - 1), "id" + i);
+      }
+    }
+
+    Path path = this.folder.getRoot().toPath().resolve("graph.snapshot");
+    GraphSnapshot.write(path, 1234L, graph);
+
+    VersionGraph loaded = new VersionGraph();
+    long timestamp = GraphSnapshot.read(path, loaded);
+
+    assertEquals(1234L, timestamp);
+    assertEquals(graph.getVertexCount(), loaded.getVertexCount());
+    assertEquals(graph.getEdgeCount(), loaded.getEdgeCount());
+
+    List<String> reachable = loaded.runDFS("id500");
+    assertEquals(500, reachable.size());
+  }
+
+  @Test
+  public void testReadIntoNonEmptyGraph() throws IOException {
+    VersionGraph graph = new VersionGraph();
+    graph.addEdge("b", "c");
+
+    Path path = this.folder.getRoot().toPath().resolve("graph.snapshot");
+    GraphSnapshot.write(path, 0L, graph);
+
+    VersionGraph loaded = new VersionGraph();
+    loaded.addEdge("a", "b");
+    GraphSnapshot.read(path, loaded);
+
+    assertEquals(3, loaded.getVertexCount());
+    assertEquals(3, loaded.runDFS("a").size());
+  }
+
+  @Test
+  public void testSuccessorsAddedDuringWrite() throws IOException {
+    // reports the vertex count from before c was added, as when a writer adds c and the edge
+    // b -> c while the snapshot is being written
+    VersionGraph graph = new VersionGraph() {
+      @Override
+      public int getVertexCount() {
+        return 2;
+      }
+    };
+    graph.addEdge("a", "b");
+    graph.addEdge("b", "c");
+
+    Path path = this.folder.getRoot().toPath().resolve("graph.snapshot");
+    GraphSnapshot.write(path, 0L, graph);
+
+    VersionGraph loaded = new VersionGraph();
+    GraphSnapshot.read(path, loaded);
+
+    assertEquals(2, loaded.getVertexCount());
+    assertEquals(1, loaded.getEdgeCount());
+  }
+
+  @Test
+  public void testEmptyGraph() throws IOException {
+    Path path = this.folder.getRoot().toPath().resolve("graph.snapshot");
+    GraphSnapshot.write(path, 0L, new VersionGraph());
+
+    VersionGraph loaded = new VersionGraph();
+    GraphSnapshot.read(path, loaded);
+
+    assertEquals(0, loaded.getVertexCount());
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnrecognizedFormat() throws IOException {
+    Path path = this.folder.newFile("graph.snapshot").toPath();
+    Files.write(path, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+    GraphSnapshot.read(path, new VersionGraph());
+  }
+}
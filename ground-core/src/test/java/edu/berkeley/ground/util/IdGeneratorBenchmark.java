@@ -0,0 +1,64 @@
+package edu.berkeley.ground.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the id strategies, single-threaded and under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdGeneratorBenchmark {
+  @Param({"sha1", "time", "snowflake"})
+  public String strategyName;
+
+  private IdStrategy strategy;
+
+  @Setup
+  public void setup() {
+    switch (this.strategyName) {
+      case "sha1":
+        this.strategy = new Sha1IdStrategy();
+        break;
+      case "time":
+        this.strategy = new TimeOrderedIdStrategy();
+        break;
+      default:
+        this.strategy = new SnowflakeIdStrategy(1);
+    }
+  }
+
+  @Benchmark
+  public String generateId() {
+    return this.strategy.generateId("Nodes.benchmark");
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String generateIdContended() {
+    return this.strategy.generateId("Nodes.benchmark");
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+        .include(IdGeneratorBenchmark.class.getSimpleName())
+        .forks(1)
+        .build();
+
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,102 @@
+package edu.berkeley.ground.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class IdGeneratorTest {
+  private static final int THREADS = 8;
+  private static final int IDS_PER_THREAD = 50000;
+
+  @Test
+  public void testSha1IdsAreUnique() throws InterruptedException {
+    assertUniqueAcrossThreads(new Sha1IdStrategy());
+  }
+
+  @Test
+  public void testTimeOrderedIdsAreUnique() throws InterruptedException {
+    assertUniqueAcrossThreads(new TimeOrderedIdStrategy());
+  }
+
+  @Test
+  public void testSnowflakeIdsAreUnique() throws InterruptedException {
+    assertUniqueAcrossThreads(new SnowflakeIdStrategy(1));
+  }
+
+  @Test
+  public void testSha1IdFormat() {
+    String id = new Sha1IdStrategy().generateId("testId");
+
+    assertEquals(40, id.length());
+    assertTrue(id.matches("[0-9a-f]+"));
+  }
+
+  @Test
+  public void testTimeOrderedIdsAreOrdered() {
+    TimeOrderedIdStrategy strategy = new TimeOrderedIdStrategy();
+
+    String previous = strategy.generateId("testId");
+    for (int i = 0; i < 10000; i++) {
+      String id = strategy.generateId("testId");
+
+      assertEquals(32, id.length());
+      assertTrue(id.compareTo(previous) > 0);
+      previous = id;
+    }
+  }
+
+  @Test
+  public void testSnowflakeIdsAreOrdered() {
+    SnowflakeIdStrategy strategy = new SnowflakeIdStrategy(1023);
+
+    String previous = strategy.generateId("testId");
+    for (int i = 0; i < 10000; i++) {
+      String id = strategy.generateId("testId");
+
+      assertEquals(16, id.length());
+      assertTrue(id.compareTo(previous) > 0);
+      previous = id;
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSnowflakeWorkerIdOutOfRange() {
+    new SnowflakeIdStrategy(1024);
+  }
+
+  private static void assertUniqueAcrossThreads(IdStrategy strategy) throws InterruptedException {
+    Set<String> ids = ConcurrentHashMap.newKeySet();
+    CountDownLatch start = new CountDownLatch(1);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      Thread thread = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+
+        for (int j = 0; j < IDS_PER_THREAD; j++) {
+          ids.add(strategy.generateId("testId"));
+        }
+      });
+
+      thread.start();
+      threads.add(thread);
+    }
+
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+  }
+}
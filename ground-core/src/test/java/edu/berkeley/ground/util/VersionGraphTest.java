@@ -0,0 +1,197 @@
+package edu.berkeley.ground.util;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class VersionGraphTest {
+  private VersionGraph graph;
+
+  @Before
+  public void setup() {
+    this.graph = new VersionGraph();
+  }
+
+  @Test
+  public void testAddVertex() {
+    String testId = "testId";
+
+    this.graph.addVertex(testId);
+
+    assertEquals(1, this.graph.getVertexCount());
+    assertTrue(this.graph.containsVertex(testId));
+  }
+
+  @Test
+  public void testAddEdge() {
+    String fromId = "testFrom";
+    String toId = "testTo";
+    this.graph.addVertex(fromId);
+    this.graph.addVertex(toId);
+
+    this.graph.addEdge(fromId, toId);
+
+    assertEquals(1, this.graph.getEdgeCount());
+    assertEquals(Arrays.asList(toId), this.graph.getSuccessors(fromId));
+  }
+
+  @Test
+  public void testAddEdgeAddsEndpoints() {
+    this.graph.addEdge("testFrom", "testTo");
+
+    assertEquals(2, this.graph.getVertexCount());
+    assertTrue(this.graph.containsVertex("testFrom"));
+    assertTrue(this.graph.containsVertex("testTo"));
+  }
+
+  @Test
+  public void testParallelEdgesIgnored() {
+    this.graph.addEdge("testFrom", "testTo");
+    this.graph.addEdge("testFrom", "testTo");
+
+    assertEquals(1, this.graph.getEdgeCount());
+  }
+
+  @Test
+  public void testHandlesAreStable() {
+    int handle = this.graph.addVertex("testId");
+
+    // force the graph to grow a few times
+    for (int i = 0; i < 10000; i++) {
+      this.graph.addVertex("id" + i);
+    }
+
+    assertEquals(handle, this.graph.addVertex("testId"));
+    assertEquals(handle, this.graph.getHandle("testId"));
+    assertEquals("testId", this.graph.getId(handle));
+    assertEquals(10001, this.graph.getVertexCount());
+    assertEquals(-1, this.graph.getHandle("missingId"));
+  }
+
+  @Test
+  public void testDFS() {
+    String idOne = "idOne";
+    String idTwo = "idTwo";
+    String idThree = "idThree";
+    this.graph.addVertex(idOne);
+    this.graph.addVertex(idTwo);
+    this.graph.addVertex(idThree);
+
+    this.graph.addEdge(idOne, idTwo);
+    this.graph.addEdge(idTwo, idThree);
+
+    List<String> reachable = this.graph.runDFS(idOne);
+
+    assertEquals(3, reachable.size());
+    assert (reachable).contains(idTwo);
+    assert (reachable).contains(idThree);
+  }
+
+  @Test
+  public void testDFSWithCycleAndDiamond() {
+    this.graph.addEdge("a", "b");
+    this.graph.addEdge("a", "c");
+    this.graph.addEdge("b", "d");
+    this.graph.addEdge("c", "d");
+    this.graph.addEdge("d", "a");
+    this.graph.addEdge("e", "a");
+
+    List<String> reachable = this.graph.runDFS("a");
+
+    assertEquals(Arrays.asList("a", "b", "d", "c"), reachable);
+  }
+
+  @Test
+  public void testDescendants() {
+    this.graph.addEdge("a", "b");
+    this.graph.addEdge("a", "c");
+    this.graph.addEdge("b", "d");
+    this.graph.addEdge("c", "d");
+
+    assertEquals(Arrays.asList("b", "d", "c"), this.graph.getDescendants("a"));
+    assertEquals(new ArrayList<>(), this.graph.getDescendants("d"));
+
+    // a start on a cycle is reached again, and returned once
+    this.graph.addEdge("d", "a");
+    assertEquals(Arrays.asList("b", "d", "a", "c"), this.graph.getDescendants("a"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDFSFromMissingVertex() {
+    this.graph.runDFS("missingId");
+  }
+
+  @Test
+  public void testConcurrentWritersAndReaders() throws InterruptedException {
+    int writers = 4;
+    int chainLength = 20000;
+
+    this.graph.addVertex("root");
+
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // every writer grows its own chain hanging off the root, while readers traverse from it
+    List<Thread> threads = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      String prefix = "writer" + w + "-";
+
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+
+          String previous = "root";
+          for (int i = 0; i < chainLength; i++) {
+            String id = prefix + i;
+            this.graph.addEdge(previous, id);
+            previous = id;
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      }));
+    }
+
+    List<Thread> readers = new ArrayList<>();
+    for (int r = 0; r < 2; r++) {
+      readers.add(new Thread(() -> {
+        try {
+          start.await();
+
+          while (writing.get()) {
+            List<String> reachable = this.graph.runDFS("root");
+            assertEquals("root", reachable.get(0));
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      }));
+    }
+
+    threads.forEach(Thread::start);
+    readers.forEach(Thread::start);
+    start.countDown();
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    writing.set(false);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+
+    assertNull(failure.get());
+    assertEquals(1 + writers * chainLength, this.graph.getVertexCount());
+    assertEquals(writers * chainLength, this.graph.getEdgeCount());
+    assertEquals(1 + writers * chainLength, this.graph.runDFS("root").size());
+  }
+}
@@ -60,8 +60,7 @@ public class GremlinRichVersionFactory extends RichVersionFactory {
     }
 
     if (structureVersionId != null) {
-      StructureVersion structureVersion = this.structureVersionFactory.retrieveFromDatabase(structureVersionId);
-      RichVersionFactory.checkStructureTags(structureVersion, tags);
+      this.checkStructureTags(connection, structureVersionId, tags);
     }
 
     if (!referenceParameters.isEmpty()) {
@@ -109,6 +108,10 @@ public class GremlinRichVersionFactory extends RichVersionFactory {
     }
   }
 
+  protected StructureVersion retrieveStructureVersion(GroundDBConnection connection, String structureVersionId) throws GroundException {
+    return this.structureVersionFactory.retrieveFromDatabase(connection, structureVersionId);
+  }
+
   public RichVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
     GremlinConnection connection = (GremlinConnection) connectionPointer;
 
@@ -17,6 +17,7 @@ package edu.berkeley.ground.api.models.gremlin;
 import edu.berkeley.ground.api.models.StructureVersion;
 import edu.berkeley.ground.api.models.StructureVersionFactory;
 import edu.berkeley.ground.api.versions.GroundType;
+import edu.berkeley.ground.db.DBClient.GroundDBConnection;
 import edu.berkeley.ground.db.DbDataContainer;
 import edu.berkeley.ground.db.GremlinClient;
 import edu.berkeley.ground.db.GremlinClient.GremlinConnection;
@@ -75,6 +76,30 @@ public class GremlinStructureVersionFactory extends StructureVersionFactory {
   public StructureVersion retrieveFromDatabase(String id) throws GroundException {
     GremlinConnection connection = this.dbClient.getConnection();
 
+    try {
+      StructureVersion structureVersion = this.retrieveFromDatabase(connection, id);
+
+      connection.commit();
+      LOGGER.info("Retrieved structure version " + id + " in structure " + structureVersion.getStructureId() + ".");
+
+      return structureVersion;
+    } catch (GroundException ge) {
+      connection.abort();
+
+      throw ge;
+    }
+  }
+
+  /**
+   * Retrieve a StructureVersion within an open transaction.
+   *
+   * @param connectionPointer the connection to read with
+   * @param id                the id of the StructureVersion
+   * @return the StructureVersion
+   */
+  public StructureVersion retrieveFromDatabase(GroundDBConnection connectionPointer, String id) throws GroundException {
+    GremlinConnection connection = (GremlinConnection) connectionPointer;
+
     List<DbDataContainer> predicates = new ArrayList<>();
     predicates.add(new DbDataContainer("id", GroundType.STRING, id));
 
@@ -94,9 +119,6 @@ public class GremlinStructureVersionFactory extends StructureVersionFactory {
 
     String structureId = versionVertex.property("structure_id").value().toString();
 
-    connection.commit();
-    LOGGER.info("Retrieved structure version " + id + " in structure " + structureId + ".");
-
     return StructureVersionFactory.construct(id, structureId, attributes);
   }
 }
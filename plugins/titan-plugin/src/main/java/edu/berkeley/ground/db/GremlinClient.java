@@ -221,7 +221,9 @@ public class GremlinClient implements DBClient {
     public List<String> transitiveClosure(String nodeVersionId) {
       GraphTraversal traversal = this.graph.traversal().V().has("id", nodeVersionId);
 
-      traversal = traversal.repeat(__.outE("EdgeVersionConnection").inV().outE("EdgeVersionConnection").inV());
+      // the dedup inside the repeat keeps its state across iterations, so each node version is
+      // emitted and expanded once, and a cycle back to the start ends the traversal
+      traversal = traversal.repeat(__.outE("EdgeVersionConnection").inV().outE("EdgeVersionConnection").inV().dedup());
       traversal = traversal.emit();
       traversal = traversal.until(__.outE("EdgeVersionConnection").count().is(0)).values("id");
 